@@ -4,6 +4,8 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.arcn.helpdesk.api.repository.UserRepository;
@@ -12,6 +14,8 @@ import com.arcn.helpdesk.api.security.enums.ProfileEnum;
 
 
 @SpringBootApplication
+@EnableScheduling
+@EnableAsync
 public class HelpDeskApplication {
 
 	public static void main(String[] args) {
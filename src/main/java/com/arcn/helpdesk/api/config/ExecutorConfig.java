@@ -0,0 +1,97 @@
+package com.arcn.helpdesk.api.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+// Pools de threads dedicados para trabalho fora da thread da requisição
+@Configuration
+public class ExecutorConfig {
+
+	// Contagens totais das listagens (consultadas somente quando o cliente pede o total)
+	@Bean
+	public ThreadPoolTaskExecutor countExecutor(@Value("${ticket.count.pool-size}") int poolSize) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(100);
+		executor.setThreadNamePrefix("ticket-count-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return executor;
+	}
+
+	// Propagação das cópias de usuário para os tickets (uma thread, em ordem de chegada)
+	@Bean
+	public ThreadPoolTaskExecutor snapshotExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1000);
+		executor.setThreadNamePrefix("user-snapshot-");
+		return executor;
+	}
+
+	// Consultas paralelas do detalhe do ticket; com a fila cheia a consulta roda na própria requisição
+	@Bean
+	public ThreadPoolTaskExecutor detailExecutor(@Value("${ticket.detail.pool-size}") int poolSize) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(poolSize * 10);
+		executor.setThreadNamePrefix("ticket-detail-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return executor;
+	}
+
+	// Hash de senha do login (BCrypt) fora das threads do Tomcat; com a fila cheia o login é recusado (503)
+	@Bean
+	public ThreadPoolTaskExecutor loginExecutor(@Value("${auth.login.pool-size}") int poolSize,
+			@Value("${auth.login.queue-capacity}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("auth-login-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		return executor;
+	}
+
+	// Requisições assíncronas do MVC (exportação em streaming); com a fila cheia a requisição é recusada
+	@Bean
+	public ThreadPoolTaskExecutor exportExecutor(@Value("${ticket.export.pool-size}") int poolSize) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(poolSize * 2);
+		executor.setThreadNamePrefix("ticket-export-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		return executor;
+	}
+
+	// Miniaturas e normalização dos anexos; com a fila cheia o anexo fica pendente para o próximo start
+	@Bean
+	public ThreadPoolTaskExecutor imageExecutor(@Value("${image.pool-size}") int poolSize,
+			@Value("${image.queue-capacity}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("ticket-image-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+		return executor;
+	}
+
+	// Migrações de dados em segundo plano na subida (uma thread; não ocupa o pool de processamento de imagens)
+	@Bean
+	public ThreadPoolTaskExecutor migrationExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(10);
+		executor.setThreadNamePrefix("data-migration-");
+		return executor;
+	}
+}
@@ -0,0 +1,141 @@
+package com.arcn.helpdesk.api.config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.ArchivedTicket;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.RevokedToken;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+
+// Catálogo declarativo dos índices do MongoDB, criados em background na subida da aplicação
+@Component
+public class MongoIndexCatalog {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	// Índices substituídos por outro do catálogo: nome antigo -> nome do substituto
+	private static final Map<Class<?>, Map<String, String>> RETIRED = new LinkedHashMap<Class<?>, Map<String, String>>();
+
+	static {
+		RETIRED.put(Ticket.class, Collections.singletonMap("number", "number_unique"));
+	}
+
+	// Índices por entidade; todas as listagens ordenam por (date desc, _id desc)
+	public static Map<Class<?>, List<Index>> indexes() {
+		Map<Class<?>, List<Index>> catalog = new LinkedHashMap<Class<?>, List<Index>>();
+		catalog.put(Ticket.class, Arrays.asList(
+				dateOrder(new Index()).named("date_id"),
+				dateOrder(new Index().on("user.$id", Direction.ASC)).named("user_date_id"),
+				dateOrder(new Index().on("assignedUser.$id", Direction.ASC)).named("assignedUser_date_id"),
+				dateOrder(new Index().on("status", Direction.ASC)).named("status_date_id"),
+				dateOrder(new Index().on("priority", Direction.ASC)).named("priority_date_id"),
+				// Esparso: tickets antigos sem número não colidem entre si. Descendente para não ter a mesma chave
+				// do antigo índice "number" (não esparso), que só é removido depois que este existe
+				new Index().on("number", Direction.DESC).unique().sparse().named("number_unique").background(),
+				// Resumos agrupados: filtro por período + status/prioridade
+				new Index().on("date", Direction.DESC).on("status", Direction.ASC).on("priority", Direction.ASC)
+						.named("date_status_priority").background(),
+				// Anexos de imagem pendentes de processamento (esparso: a maioria dos tickets não tem anexo)
+				new Index().on("attachment.contentType", Direction.ASC).sparse().named("attachment_contentType")
+						.background()));
+		catalog.put(ChangeStatus.class, Arrays.asList(
+				new Index().on("ticket.$id", Direction.ASC).on("dateChangeStatus", Direction.DESC)
+						.named("ticket_dateChangeStatus").background()));
+		catalog.put(ArchivedTicket.class, Arrays.asList(
+				new Index().on("number", Direction.ASC).unique().sparse().named("number").background(),
+				// Resumos agrupados: filtro por período
+				new Index().on("date", Direction.DESC).named("date").background()));
+		catalog.put(User.class, Arrays.asList(
+				new Index().on("email", Direction.ASC).unique().named("email").background()));
+		// TTL: o documento é removido quando o token revogado expira
+		catalog.put(RevokedToken.class, Arrays.asList(
+				new Index().on("expiresAt", Direction.ASC).expire(0).named("expiresAt_ttl").background()));
+		return catalog;
+	}
+
+	private static Index dateOrder(Index index) {
+		return index.on("date", Direction.DESC).on("_id", Direction.DESC).background();
+	}
+
+	// Índice único ausente interrompe a subida: sem ele os dados podem ficar duplicados
+	@EventListener(ApplicationReadyEvent.class)
+	public void ensureIndexes() {
+		List<String> missing = ensureIndexes(this.mongoTemplate);
+		if (missing.isEmpty()) {
+			logger.info("HelpDesk-API | MongoDB indexes verified");
+			return;
+		}
+		logger.error("HelpDesk-API | MongoDB indexes missing after startup: " + missing);
+		List<String> missingUnique = new ArrayList<String>();
+		for (Map.Entry<Class<?>, List<Index>> entry : indexes().entrySet()) {
+			for (Index index : entry.getValue()) {
+				String name = this.mongoTemplate.getCollectionName(entry.getKey()) + "." + index.getIndexOptions().get("name");
+				if (Boolean.TRUE.equals(index.getIndexOptions().get("unique")) && missing.contains(name)) {
+					missingUnique.add(name);
+				}
+			}
+		}
+		if (!missingUnique.isEmpty()) {
+			throw new IllegalStateException("Índices únicos não puderam ser criados (dados duplicados?): " + missingUnique);
+		}
+	}
+
+	// Cria os índices do catálogo e retorna os que não existem no banco ao final (coleção.índice)
+	public static List<String> ensureIndexes(MongoTemplate mongoTemplate) {
+		Log logger = LogFactory.getLog(MongoIndexCatalog.class);
+		List<String> missing = new ArrayList<String>();
+		for (Map.Entry<Class<?>, List<Index>> entry : indexes().entrySet()) {
+			String collection = mongoTemplate.getCollectionName(entry.getKey());
+			for (Index index : entry.getValue()) {
+				try {
+					mongoTemplate.indexOps(entry.getKey()).ensureIndex(index);
+				} catch (RuntimeException e) {
+					logger.error("HelpDesk-API | could not create index " + collection + "."
+							+ index.getIndexOptions().get("name") + ": " + e.getMessage());
+				}
+			}
+			Set<String> existing = new HashSet<String>();
+			for (IndexInfo info : mongoTemplate.indexOps(entry.getKey()).getIndexInfo()) {
+				existing.add(info.getName());
+			}
+			for (Index index : entry.getValue()) {
+				String name = (String) index.getIndexOptions().get("name");
+				if (!existing.contains(name)) {
+					missing.add(collection + "." + name);
+				}
+			}
+			// O antigo continua valendo até o substituto terminar de ser criado (a unicidade nunca fica sem índice)
+			for (Map.Entry<String, String> retired : RETIRED.getOrDefault(entry.getKey(),
+					Collections.<String, String>emptyMap()).entrySet()) {
+				if (existing.contains(retired.getKey()) && existing.contains(retired.getValue())) {
+					mongoTemplate.indexOps(entry.getKey()).dropIndex(retired.getKey());
+					logger.info("HelpDesk-API | dropped index " + collection + "." + retired.getKey() + ", replaced by "
+							+ retired.getValue());
+				}
+			}
+		}
+		return missing;
+	}
+}
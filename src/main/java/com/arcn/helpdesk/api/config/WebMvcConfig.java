@@ -0,0 +1,41 @@
+package com.arcn.helpdesk.api.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+
+import com.arcn.helpdesk.api.security.jwt.CurrentPrincipalArgumentResolver;
+
+// Configuração do Spring MVC: argumentos resolvidos a partir do token e requisições assíncronas
+@Configuration
+public class WebMvcConfig extends WebMvcConfigurerAdapter {
+
+	@Autowired
+	private CurrentPrincipalArgumentResolver currentPrincipalArgumentResolver;
+
+	@Autowired
+	@Qualifier("exportExecutor")
+	private ThreadPoolTaskExecutor exportExecutor;
+
+	@Value("${ticket.export.timeout}")
+	private long exportTimeout;
+
+	// StreamingResponseBody roda no pool de exportação, com tempo maior que o padrão do container
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(exportExecutor);
+		configurer.setDefaultTimeout(exportTimeout);
+	}
+
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> argumentResolvers) {
+		argumentResolvers.add(currentPrincipalArgumentResolver);
+	}
+}
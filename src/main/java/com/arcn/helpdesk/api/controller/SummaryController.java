@@ -0,0 +1,62 @@
+package com.arcn.helpdesk.api.controller;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.arcn.helpdesk.api.dto.SummaryItem;
+import com.arcn.helpdesk.api.response.Response;
+import com.arcn.helpdesk.api.security.enums.SummaryGroupEnum;
+import com.arcn.helpdesk.api.service.SummaryService;
+
+@RestController
+@RequestMapping("/api/summary")  // Mapeamento para Front
+@CrossOrigin(origins = "*")       // Servidores de Origem - HOST + PORTA
+public class SummaryController {
+
+    // Importando dependencias do SummaryService
+    @Autowired
+    private SummaryService summaryService;
+
+    // Resumo agrupado por status, priority, technician, customer, day ou week
+    // Ex: /api/summary/technician?start=2018-01-01&end=2018-01-31
+    // Datas do período em UTC, o mesmo fuso dos agrupamentos day/week feitos no MongoDB
+    @GetMapping(value = "{group}")
+    @PreAuthorize("hasAnyRole('ADMIN','TECHNICIAN')")
+    public ResponseEntity<Response<List<SummaryItem>>> summarize(
+            @PathVariable("group") String group,
+            @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+            @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
+
+        Response<List<SummaryItem>> response = new Response<List<SummaryItem>>();
+        SummaryGroupEnum summaryGroup = SummaryGroupEnum.getGroup(group);
+        if (summaryGroup == null) {
+            response.getErrors().add("Agrupamento inválido: " + group);
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (start != null && end != null && end.isBefore(start)) {
+            response.getErrors().add("Período inválido");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.setData(summaryService.summarize(summaryGroup, startOfDay(start),
+                end == null ? null : startOfDay(end.plusDays(1))));
+        return ResponseEntity.ok(response);
+    }
+
+    // A data final é inclusiva: a consulta vai até o início (UTC) do dia seguinte
+    private static Date startOfDay(LocalDate day) {
+        return day == null ? null : Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -1,15 +1,23 @@
 package com.arcn.helpdesk.api.controller;
 
-import java.util.ArrayList;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
@@ -17,23 +25,31 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.arcn.helpdesk.api.dto.CursorPage;
+import com.arcn.helpdesk.api.dto.ImportReport;
+import com.arcn.helpdesk.api.dto.SliceResult;
+import com.arcn.helpdesk.api.dto.StatusChangeResult;
 import com.arcn.helpdesk.api.dto.Summary;
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.dto.TicketSummary;
 import com.arcn.helpdesk.api.response.Response;
-import com.arcn.helpdesk.api.security.entity.ChangeStatus;
 import com.arcn.helpdesk.api.security.entity.Ticket;
-import com.arcn.helpdesk.api.security.entity.User;
-import com.arcn.helpdesk.api.security.enums.ProfileEnum;
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
 import com.arcn.helpdesk.api.security.enums.StatusEnum;
-import com.arcn.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.arcn.helpdesk.api.security.model.CurrentPrincipal;
+import com.arcn.helpdesk.api.service.BlobResource;
+import com.arcn.helpdesk.api.service.TicketCounterService;
 import com.arcn.helpdesk.api.service.TicketService;
-import com.arcn.helpdesk.api.service.UserService;
 
 @RestController
 @RequestMapping("/api/ticket")    // Mapeamento para Front
@@ -44,19 +60,19 @@ public class TicketController {
     @Autowired
     private TicketService ticketService;
 
-    // Importando dependencias do Token 
+    // Importando dependencias dos contadores de status
     @Autowired
-    protected JwtTokenUtil jwtTokenUtil;
+    private TicketCounterService ticketCounterService;
 
-    // Importando dependencias do UserService 
-    @Autowired
-    private UserService userService;
+    // Limite de tickets da mudança de status em lote
+    @Value("${ticket.bulk.max-ids}")
+    private int bulkMaxIds;
 
     // Método para criação do Ticket
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER')")
     public ResponseEntity<Response<Ticket>> create(
-            HttpServletRequest request, // reuisicao Http
+            CurrentPrincipal principal, // usuario do token
             @RequestBody Ticket ticket, // Corpo da Requisição 
             BindingResult result) {  // Resultado 
 
@@ -68,7 +84,7 @@ public class TicketController {
                 return ResponseEntity.badRequest().body(response);
             }
             ticket.setStatus(StatusEnum.getStatus("New"));
-            ticket.setUser(userFromRequest(request));
+            ticket.setUser(principal.toUser());
             ticket.setDate(new Date());
             ticket.setNumber(generateNumber());
             Ticket ticketPersisted = (Ticket) ticketService.createOrUpdate(ticket);
@@ -88,17 +104,9 @@ public class TicketController {
         }
     }
 
-    // Metodo para verificar o usuario logado 
-    public User userFromRequest(HttpServletRequest request) {
-        String token = request.getHeader("Authorization");
-        String email = jwtTokenUtil.getUsernameFromToken(token);
-        return userService.findByEmail(email);
-    }
-
-    // Criação do Número do Ticket:
+    // Criação do Número do Ticket (sequência reservada em blocos):
     private Integer generateNumber() {
-        Random random = new Random();
-        return random.nextInt(9999);
+        return ticketService.nextNumber();
     }
 
     // Método para alteração do Ticket
@@ -120,10 +128,17 @@ public class TicketController {
             Ticket ticketCurrent = ticketService.findById(ticket.getId());
             ticket.setStatus(ticketCurrent.getStatus());
             ticket.setUser(ticketCurrent.getUser());
+            ticket.setUserSnapshot(ticketCurrent.getUserSnapshot());
             ticket.setDate(ticketCurrent.getDate());
             ticket.setNumber(ticketCurrent.getNumber());
+            ticket.setAttachment(ticketCurrent.getAttachment());
+            // Sem versão no corpo, vale a versão lida agora (o save ainda falha se houver alteração concorrente)
+            if (ticket.getVersion() == null) {
+                ticket.setVersion(ticketCurrent.getVersion());
+            }
             if (ticketCurrent.getAssignedUser() != null) {
                 ticket.setAssignedUser(ticketCurrent.getAssignedUser());
+                ticket.setAssignedUserSnapshot(ticketCurrent.getAssignedUserSnapshot());
             }
             Ticket ticketPersisted = (Ticket) ticketService.createOrUpdate(ticket);
             response.setData(ticketPersisted);
@@ -134,6 +149,117 @@ public class TicketController {
         return ResponseEntity.ok(response);
     }
 
+    // Importação em massa: corpo NDJSON (um ticket por linha) ou CSV com cabeçalho (Content-Type text/csv)
+    // Colunas: title, description, priority, status, date, user (e-mail), assignedUser (e-mail), image
+    @PostMapping(value = "import")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<Response<ImportReport>> importTickets(HttpServletRequest request) {
+        Response<ImportReport> response = new Response<ImportReport>();
+        boolean csv = request.getContentType() != null && request.getContentType().startsWith("text/csv");
+        // Lido direto do corpo da requisição, sem carregar o arquivo em memória
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            response.setData(ticketService.importTickets(reader, csv));
+        } catch (Exception e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Exportação de todos os tickets visíveis ao usuário (CSV ou NDJSON), sem paginação
+    @GetMapping(value = "export")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<?> export(
+            CurrentPrincipal principal,
+            HttpServletRequest request,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "history", defaultValue = "false") boolean history) {
+        TicketFilter filter = new TicketFilter();
+        if (principal.isCustomer()) {
+            filter.setUserId(principal.getId());
+        }
+        return exportResponse(request, filter, format, history);
+    }
+
+    // Exportação com os mesmos filtros do findByParams
+    @GetMapping(value = "export/{number}/{title}/{status}/{priority}/{assigned}")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<?> exportByParams(
+            CurrentPrincipal principal,
+            HttpServletRequest request,
+            @PathVariable Integer number,
+            @PathVariable String title,
+            @PathVariable String status,
+            @PathVariable String priority,
+            @PathVariable boolean assigned,
+            @RequestParam(value = "format", defaultValue = "csv") String format,
+            @RequestParam(value = "history", defaultValue = "false") boolean history) {
+        TicketFilter filter;
+        try {
+            filter = filterFromParams(principal, number, title, status, priority, assigned);
+        } catch (IllegalArgumentException e) {
+            Response<String> response = new Response<String>();
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return exportResponse(request, filter, format, history);
+    }
+
+    // Escreve direto do cursor na resposta (gzip quando o cliente aceita), sem montar a lista em memória
+    private ResponseEntity<?> exportResponse(HttpServletRequest request, TicketFilter filter,
+            String format, boolean history) {
+        if (!format.equals("csv") && !format.equals("ndjson")) {
+            Response<String> response = new Response<String>();
+            response.getErrors().add("Formato inválido: " + format);
+            return ResponseEntity.badRequest().body(response);
+        }
+        boolean csv = format.equals("csv");
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 8192);
+                ticketService.exportTickets(filter, csv, history, compressed);
+                compressed.finish();
+            } else {
+                ticketService.exportTickets(filter, csv, history, output);
+            }
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                        : MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tickets." + format + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+
+    // Atualização parcial: somente os campos enviados e alterados são gravados ($set/$unset)
+    // "version" no corpo (opcional) faz o PATCH falhar se o ticket foi alterado depois dessa versão
+    @PatchMapping(value = "{id}")
+    @PreAuthorize("hasAnyRole('CUSTOMER')")
+    public ResponseEntity<Response<Ticket>> patch(
+            @PathVariable("id") String id,
+            @RequestBody Map<String, Object> fields) {
+
+        Response<Ticket> response = new Response<Ticket>();
+        try {
+            Object version = fields.remove("version");
+            Long expectedVersion = version instanceof Number ? ((Number) version).longValue() : null;
+            response.setData(ticketService.patch(id, fields, expectedVersion));
+        } catch (OptimisticLockingFailureException e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        } catch (Exception e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     // Metodo para validacao do Ticket para update
     private void validateUpdateTicket(Ticket ticket, BindingResult result) {
         if (ticket.getId() == null) {
@@ -152,23 +278,76 @@ public class TicketController {
     public ResponseEntity<Response<Ticket>> findById(@PathVariable("id") String id) {
 
         Response<Ticket> response = new Response<Ticket>();
-        Ticket ticket = ticketService.findById(id);
+        // Ticket e histórico buscados em paralelo
+        Ticket ticket = ticketService.findDetail(id);
         if (ticket == null) {
             response.getErrors().add("Registro não encontrado: " + id);
             return ResponseEntity.badRequest().body(response);
         }
+        response.setData(ticket);
+        return ResponseEntity.ok(response);
+    }
 
-        List<ChangeStatus> changes = new ArrayList<ChangeStatus>();
-        Iterable<ChangeStatus> changesCurrent = ticketService.listChangeStatus(ticket.getId());
-        for (Iterator<ChangeStatus> iterator = changes.iterator(); iterator.hasNext();) {
-            ChangeStatus next = iterator.next();
-            changes.add(next);
+    // Método para gravar o anexo do Ticket (corpo binário em streaming, sem base64)
+    @PutMapping(value = "{id}/attachment")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Response<TicketAttachment>> storeAttachment(
+            HttpServletRequest request,
+            @PathVariable("id") String id,
+            @RequestParam(value = "filename", required = false) String filename) {
+
+        Response<TicketAttachment> response = new Response<TicketAttachment>();
+        try {
+            Ticket ticket = ticketService.storeAttachment(id, request.getInputStream(),
+                    filename == null ? "attachment" : filename, request.getContentType());
+            response.setData(ticket.getAttachment());
+        } catch (Exception e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
         }
-        ticket.setChanges(changes);
-        response.setData(ticket);
         return ResponseEntity.ok(response);
     }
 
+    // Método para download do anexo do Ticket (aceita Range para retomada e pré-visualização)
+    @GetMapping(value = "{id}/attachment")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Resource> findAttachment(@PathVariable("id") String id) {
+        return attachmentResponse(ticketService.openAttachment(id));
+    }
+
+    // Resposta de download de um blob, com tipo, tamanho e nome do arquivo
+    // Somente imagens da lista são exibidas inline; o resto (e tipos gravados antes da lista) é sempre download
+    private ResponseEntity<Resource> attachmentResponse(BlobResource resource) {
+        if (resource == null) {
+            return ResponseEntity.notFound().build();
+        }
+        TicketAttachment attachment = resource.getAttachment();
+        String filename = attachment.getFilename() == null ? "attachment"
+                : attachment.getFilename().replaceAll("[^A-Za-z0-9._-]", "_");
+        String contentType = TicketAttachment.safeContentType(attachment.getContentType());
+        String disposition = TicketAttachment.isImageType(contentType) ? "inline" : "attachment";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .contentLength(attachment.getLength())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + filename + "\"")
+                .header("X-Content-Type-Options", "nosniff")
+                .body(resource);
+    }
+
+    // Miniatura do anexo (usada nas listagens); 404 enquanto o processamento não terminou
+    @GetMapping(value = "{id}/attachment/thumbnail")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Resource> findThumbnail(@PathVariable("id") String id) {
+        return attachmentResponse(ticketService.openThumbnail(id));
+    }
+
+    // Imagem do anexo reduzida e normalizada (usada no detalhe); 404 enquanto o processamento não terminou
+    @GetMapping(value = "{id}/attachment/preview")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Resource> findPreview(@PathVariable("id") String id) {
+        return attachmentResponse(ticketService.openPreview(id));
+    }
+
     // Método para deletar Ticket pelo Id
     @DeleteMapping(value = "{id}")
     @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
@@ -186,18 +365,17 @@ public class TicketController {
     // Metodo findAll 
     @GetMapping(value = "{page}/{count}")
     @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
-    public ResponseEntity<Response<Page<Ticket>>> findAll(
-            HttpServletRequest request,
+    public ResponseEntity<Response<Page<TicketSummary>>> findAll(
+            CurrentPrincipal principal,
             @PathVariable("page") int page,
             @PathVariable("count") int count) {
 
-        Response<Page<Ticket>> response = new Response<Page<Ticket>>();
-        Page<Ticket> tickets = null;
-        User userRequest = userFromRequest(request);
-        if (userRequest.getProfile().equals(ProfileEnum.ROLE_TECHNICIAN)) {
+        Response<Page<TicketSummary>> response = new Response<Page<TicketSummary>>();
+        Page<TicketSummary> tickets = null;
+        if (principal.isTechnician()) {
             tickets = ticketService.listTicket(page, count);
-        } else if (userRequest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
-            tickets = ticketService.findByCurrentUser(page, count, userRequest.getId());
+        } else if (principal.isCustomer()) {
+            tickets = ticketService.findByCurrentUser(page, count, principal.getId());
         }
         response.setData(tickets);
         return ResponseEntity.ok(response);
@@ -206,8 +384,8 @@ public class TicketController {
     // Metodo findAll 
     @GetMapping(value = "{page}/{count}/{number}/{title}/{status}/{priority}/{assigned}")
     @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
-    public ResponseEntity<Response<Page<Ticket>>> findByParams(
-            HttpServletRequest request,
+    public ResponseEntity<Response<Page<TicketSummary>>> findByParams(
+            CurrentPrincipal principal,
             @PathVariable int page,
             @PathVariable int count,
             @PathVariable Integer number,
@@ -216,31 +394,146 @@ public class TicketController {
             @PathVariable String priority,
             @PathVariable boolean assigned) {
 
-        // Fazendo a validação dos parâmetros: 
-        title = title.equals("uninformed") ? "" : title;
-        status = status.equals("uninformed") ? "" : status;
-        priority = priority.equals("uninformed") ? "" : priority;
+        Response<Page<TicketSummary>> response = new Response<Page<TicketSummary>>();
+        try {
+            TicketFilter filter = filterFromParams(principal, number, title, status, priority, assigned);
+            response.setData(ticketService.findByFilter(page, count, filter));
+        } catch (IllegalArgumentException e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Listagem por cursor (keyset): o custo de qualquer página é o mesmo da primeira
+    @GetMapping(value = "cursor/{count}")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Response<CursorPage<TicketSummary>>> findByCursor(
+            CurrentPrincipal principal,
+            @PathVariable("count") int count,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+
+        Response<CursorPage<TicketSummary>> response = new Response<CursorPage<TicketSummary>>();
+        TicketFilter filter = new TicketFilter();
+        if (principal.isCustomer()) {
+            filter.setUserId(principal.getId());
+        }
+        return cursorResponse(response, count, cursor, filter);
+    }
+
+    // Listagem por cursor com os mesmos filtros do findByParams
+    @GetMapping(value = "cursor/{count}/{number}/{title}/{status}/{priority}/{assigned}")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Response<CursorPage<TicketSummary>>> findByParamsCursor(
+            CurrentPrincipal principal,
+            @PathVariable int count,
+            @PathVariable Integer number,
+            @PathVariable String title,
+            @PathVariable String status,
+            @PathVariable String priority,
+            @PathVariable boolean assigned,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+
+        Response<CursorPage<TicketSummary>> response = new Response<CursorPage<TicketSummary>>();
+        TicketFilter filter;
+        try {
+            filter = filterFromParams(principal, number, title, status, priority, assigned);
+        } catch (IllegalArgumentException e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return cursorResponse(response, count, cursor, filter);
+    }
 
-        //
-        Response<Page<Ticket>> response = new Response<Page<Ticket>>();
-        Page<Ticket> tickets = null;
+    // Executa a busca por cursor, devolvendo erro para quantidade ou cursor inválidos
+    private ResponseEntity<Response<CursorPage<TicketSummary>>> cursorResponse(Response<CursorPage<TicketSummary>> response,
+            int count, String cursor, TicketFilter filter) {
+        if (count <= 0) {
+            response.getErrors().add("Quantidade inválida: " + count);
+            return ResponseEntity.badRequest().body(response);
+        }
+        try {
+            response.setData(ticketService.findByCursor(count, cursor, filter));
+        } catch (IllegalArgumentException e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    // Listagem sem count (slice): o total só é calculado quando total=true
+    @GetMapping(value = "slice/{page}/{count}")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Response<SliceResult<TicketSummary>>> findSlice(
+            CurrentPrincipal principal,
+            @PathVariable("page") int page,
+            @PathVariable("count") int count,
+            @RequestParam(value = "total", defaultValue = "false") boolean total) {
 
+        Response<SliceResult<TicketSummary>> response = new Response<SliceResult<TicketSummary>>();
+        TicketFilter filter = new TicketFilter();
+        if (principal.isCustomer()) {
+            filter.setUserId(principal.getId());
+        }
+        return sliceResponse(response, page, count, filter, total);
+    }
+
+    // Listagem sem count (slice) com os mesmos filtros do findByParams
+    @GetMapping(value = "slice/{page}/{count}/{number}/{title}/{status}/{priority}/{assigned}")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Response<SliceResult<TicketSummary>>> findSliceByParams(
+            CurrentPrincipal principal,
+            @PathVariable int page,
+            @PathVariable int count,
+            @PathVariable Integer number,
+            @PathVariable String title,
+            @PathVariable String status,
+            @PathVariable String priority,
+            @PathVariable boolean assigned,
+            @RequestParam(value = "total", defaultValue = "false") boolean total) {
+
+        Response<SliceResult<TicketSummary>> response = new Response<SliceResult<TicketSummary>>();
+        TicketFilter filter;
+        try {
+            filter = filterFromParams(principal, number, title, status, priority, assigned);
+        } catch (IllegalArgumentException e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+        return sliceResponse(response, page, count, filter, total);
+    }
+
+    // Executa a busca em slice, devolvendo erro para página ou quantidade inválidas
+    private ResponseEntity<Response<SliceResult<TicketSummary>>> sliceResponse(Response<SliceResult<TicketSummary>> response,
+            int page, int count, TicketFilter filter, boolean total) {
+        if (page < 0 || count <= 0) {
+            response.getErrors().add("Página ou quantidade inválida");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.setData(ticketService.findSlice(page, count, filter, total));
+        return ResponseEntity.ok(response);
+    }
+
+    // Monta o filtro a partir dos parâmetros do findByParams ("uninformed" = não informado)
+    // status e priority aceitam vários valores separados por vírgula (ex: New,Assigned)
+    private TicketFilter filterFromParams(CurrentPrincipal principal, Integer number, String title,
+            String status, String priority, boolean assigned) {
+        TicketFilter filter = new TicketFilter();
         if (number > 0) {
-            tickets = ticketService.findByNumber(page, count, number);
-        } else {
-            User userReuest = userFromRequest(request);
-            if (userReuest.getProfile().equals(ProfileEnum.ROLE_TECHNICIAN)) {
-                if (assigned) {
-                    tickets = ticketService.findByParametersAndAssignedUser(page, count, title, status, priority, userReuest.getId());
-                } else {
-                    tickets = ticketService.findByParameters(page, count, title, status, priority);
-                }
-            } else if (userReuest.getProfile().equals(ProfileEnum.ROLE_CUSTOMER)) {
-                tickets = ticketService.findByParametersAndCurrentUser(page, count, title, status, priority, userReuest.getId());
+            filter.setNumber(number);
+            return filter;
+        }
+        filter.setTitle(title.equals("uninformed") ? null : title);
+        filter.setStatuses(status.equals("uninformed") ? null : TicketFilter.statusesOf(status));
+        filter.setPriorities(priority.equals("uninformed") ? null : TicketFilter.prioritiesOf(priority));
+        if (principal.isTechnician()) {
+            if (assigned) {
+                filter.setAssignedUserId(principal.getId());
             }
+        } else if (principal.isCustomer()) {
+            filter.setUserId(principal.getId());
         }
-        response.setData(tickets);
-        return ResponseEntity.ok(response);
+        return filter;
     }
 
     @PutMapping(value = "{id}/{status}")
@@ -248,7 +541,7 @@ public class TicketController {
     public ResponseEntity<Response<Ticket>> changeStatus(
             @PathVariable("id") String id,
             @PathVariable("status") String status,
-            HttpServletRequest request,
+            CurrentPrincipal principal,
             @RequestBody Ticket ticket,
             BindingResult result
     ) {
@@ -262,19 +555,13 @@ public class TicketController {
                 result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
                 return ResponseEntity.badRequest().body(response);
             }
-            Ticket ticketCurrent = ticketService.findById(id);
-            ticketCurrent.setStatus(StatusEnum.getStatus(status));
-            if (status.equals("Assigned")) {
-                ticketCurrent.setAssignedUser(userFromRequest(request));
-            }
-            Ticket ticketPersisted = (Ticket) ticketService.createOrUpdate(ticketCurrent);
-            ChangeStatus changeStatus = new ChangeStatus();
-            changeStatus.setUserChange(userFromRequest(request));
-            changeStatus.setDateChangeStatus(new Date());
-            changeStatus.setStatus(StatusEnum.getStatus(status));
-            changeStatus.setTicket(ticketPersisted);
-            ticketService.createChangeStatus(changeStatus);
+            // Update condicional: só aplica se o status atual permitir a transição (e a versão, se enviada, conferir)
+            Ticket ticketPersisted = ticketService.changeStatus(id, StatusEnum.getStatus(status), principal.toUser(),
+                    ticket.getVersion());
             response.setData(ticketPersisted);
+        } catch (OptimisticLockingFailureException e) {
+            response.getErrors().add(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
         } catch (Exception e) {
             response.getErrors().add(e.getMessage());
             return ResponseEntity.badRequest().body(response);
@@ -283,6 +570,30 @@ public class TicketController {
         return ResponseEntity.ok(response);
     }
 
+    // Mudança de status em lote: o corpo é a lista de ids; cada ticket volta com sucesso ou o motivo do conflito
+    @PutMapping(value = "bulk/{status}")
+    @PreAuthorize("hasAnyRole('CUSTOMER','TECHNICIAN')")
+    public ResponseEntity<Response<List<StatusChangeResult>>> changeStatusBulk(
+            @PathVariable("status") String status,
+            CurrentPrincipal principal,
+            @RequestBody List<String> ids) {
+
+        Response<List<StatusChangeResult>> response = new Response<List<StatusChangeResult>>();
+        StatusEnum target;
+        try {
+            target = StatusEnum.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            response.getErrors().add("Status inválido: " + status);
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (ids == null || ids.isEmpty() || ids.size() > bulkMaxIds) {
+            response.getErrors().add("Informe de 1 a " + bulkMaxIds + " tickets");
+            return ResponseEntity.badRequest().body(response);
+        }
+        response.setData(ticketService.changeStatus(ids, target, principal.toUser()));
+        return ResponseEntity.ok(response);
+    }
+
     // Metodo para validacao do Ticket para mudar status:
     private void validateChangeStatus(String id, String status, BindingResult result) {
         if (id == null || id.equals("")) {
@@ -295,48 +606,11 @@ public class TicketController {
         }
     }
     
-    // Metodo que garante o resumo dos chamados 
+    // Metodo que garante o resumo dos chamados (lido dos contadores de status)
     @GetMapping(value = "/summary")
     public ResponseEntity<Response<Summary>> findChart() {
         Response<Summary> response = new Response<Summary>();
-        Summary chart = new Summary();
-        int amountNew = 0;
-        int amountResolved = 0;
-        int amountApproved = 0;
-        int amountDisapproved = 0;
-        int amountAssigned = 0;
-        int amountClosed = 0;
-        Iterable<Ticket> tickets = ticketService.findAll();
-        if (tickets != null) {
-            for (Iterator<Ticket> iterator = tickets.iterator(); iterator.hasNext();) {
-                Ticket ticket = iterator.next();
-                if (ticket.getStatus().equals(StatusEnum.New)) {
-                    amountNew++;
-                }
-                if (ticket.getStatus().equals(StatusEnum.Resolved)) {
-                    amountResolved++;
-                }
-                if (ticket.getStatus().equals(StatusEnum.Approved)) {
-                    amountApproved++;
-                }
-                if (ticket.getStatus().equals(StatusEnum.Disapproved)) {
-                    amountDisapproved++;
-                }
-                if (ticket.getStatus().equals(StatusEnum.Assigned)) {
-                    amountAssigned++;
-                }
-                if (ticket.getStatus().equals(StatusEnum.Closed)) {
-                    amountClosed++;
-                }
-            }
-        }
-        chart.setAmountNew(amountNew);
-        chart.setAmountResolved(amountResolved);
-        chart.setAmountApproved(amountApproved);
-        chart.setAmountDisapproved(amountDisapproved);
-        chart.setAmountAssigned(amountAssigned);
-        chart.setAmountClosed(amountClosed);
-        response.setData(chart);
+        response.setData(ticketCounterService.summary());
         return ResponseEntity.ok(response);
     }
 
@@ -1,5 +1,7 @@
 package com.arcn.helpdesk.api.controller;
 
+import java.util.Map;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,15 +15,21 @@ import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.arcn.helpdesk.api.dto.CacheMetrics;
+import com.arcn.helpdesk.api.dto.CursorPage;
+import com.arcn.helpdesk.api.job.UserSnapshotPropagationJob;
 import com.arcn.helpdesk.api.response.Response;
 import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.jwt.JwtTokenUtil;
 import com.arcn.helpdesk.api.service.UserService;
 
 @RestController              // Elemento ResFull
@@ -37,6 +45,14 @@ public class UserController {
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
+        // Revogação dos tokens do usuario alterado ou removido (o token carrega perfil e nome)
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+
+        // Injeções de dependências do job que atualiza as cópias do usuario nos tickets
+	@Autowired
+	private UserSnapshotPropagationJob userSnapshotPropagationJob;
+
         // Classe responsável por salvar um usuário
         /*
             Objeto Response é o responsável por gerenciar a comunicação Angular <-----> Spring
@@ -87,8 +103,13 @@ public class UserController {
                     result.getAllErrors().forEach(error -> response.getErrors().add(error.getDefaultMessage()));
                     return ResponseEntity.badRequest().body(response); // Retorna um corpo com os erros 
                 }
+                User previous = userService.findById(user.getId());
                 user.setPassword(passwordEncoder.encode(user.getPassword())); // Encripta a senha
                 User userPersisted = (User) userService.createOrUpdate(user); // Cria um novo usuario para persistencia 
+                // A senha é sempre regravada no PUT: os tokens emitidos deixam de valer (e-mail antigo e novo)
+                jwtTokenUtil.revokeUser(previous);
+                jwtTokenUtil.revokeUser(userPersisted);
+                userSnapshotPropagationJob.propagate(userPersisted);          // Atualiza as cópias do usuario nos tickets
                 response.setData(userPersisted);                              // Seta o usuario novo para o sistema front
             } catch (Exception e) {
                 response.getErrors().add(e.getMessage()); 
@@ -97,6 +118,39 @@ public class UserController {
             return ResponseEntity.ok(response);
         }  
         
+        // Atualização parcial: somente os campos enviados e alterados são gravados ($set/$unset)
+        // A senha só é codificada (BCrypt) quando enviada no corpo
+        @PatchMapping(value = "{id}")
+        @PreAuthorize("hasAnyRole('ADMIN')")
+        public ResponseEntity<Response<User>> patch(@PathVariable("id") String id,
+                                                     @RequestBody Map<String, Object> fields) {
+            Response<User> response = new Response<User>();
+            try {
+                Object password = fields.get("password");
+                if (password != null) {
+                    fields.put("password", passwordEncoder.encode(password.toString())); // Encripta a senha
+                }
+                User previous = userService.findById(id);
+                User userPersisted = userService.patch(id, fields);
+                if (fields.containsKey("email") || fields.containsKey("profile") || fields.containsKey("password")) {
+                    jwtTokenUtil.revokeUser(previous);                        // Tokens com o perfil/e-mail/senha antigos
+                    jwtTokenUtil.revokeUser(userPersisted);
+                }
+                if (fields.containsKey("name") || fields.containsKey("email") || fields.containsKey("profile")) {
+                    userSnapshotPropagationJob.propagate(userPersisted);      // Atualiza as cópias do usuario nos tickets
+                }
+                userPersisted.setPassword(null);
+                response.setData(userPersisted);
+            } catch (DuplicateKeyException duplicatedExeption) {
+                response.getErrors().add("E-mail já existe");
+                return ResponseEntity.badRequest().body(response);
+            } catch (Exception e) {
+                response.getErrors().add(e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        }
+        
         // Valida se é usuario valido com base no E-mail para Update 
         private void validateUpdateUser(User user, BindingResult result) {
             if (user.getId() == null) { 
@@ -134,6 +188,7 @@ public class UserController {
             }
             
             userService.delete(id);
+            jwtTokenUtil.revokeUser(user);                                    // Tokens do usuario removido deixam de valer
             return ResponseEntity.ok(new Response<String>());
         }
         
@@ -150,5 +205,34 @@ public class UserController {
             
             return ResponseEntity.ok(response);
         }
+
+        // Busca usuarios por cursor (keyset), sem skip e sem count
+        @GetMapping(value = "cursor/{count}")
+        @PreAuthorize("hasAnyRole('ADMIN')") 
+        public ResponseEntity<Response<CursorPage<User>>> findByCursor(@PathVariable int count,
+                @RequestParam(value = "cursor", required = false) String cursor) { 
+
+            Response<CursorPage<User>> response = new Response<CursorPage<User>>();
+            if (count <= 0) {
+                response.getErrors().add("Quantidade inválida: " + count);
+                return ResponseEntity.badRequest().body(response);
+            }
+            try {
+                response.setData(userService.findByCursor(count, cursor));
+            } catch (IllegalArgumentException e) {
+                response.getErrors().add(e.getMessage());
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        }
+
+        // Métricas do cache de usuarios (acertos/falhas)
+        @GetMapping(value = "cache/metrics")
+        @PreAuthorize("hasAnyRole('ADMIN')") 
+        public ResponseEntity<Response<CacheMetrics>> cacheMetrics() { 
+            Response<CacheMetrics> response = new Response<CacheMetrics>();
+            response.setData(userService.cacheMetrics());
+            return ResponseEntity.ok(response);
+        }
 	
 }
@@ -0,0 +1,55 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+
+// Métricas de um cache em memória (acertos, falhas e remoções)
+public class CacheMetrics implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private Long size;
+	private Long hits;
+	private Long misses;
+	private Double hitRate;
+	private Long evictions;
+
+	public Long getSize() {
+		return size;
+	}
+
+	public void setSize(Long size) {
+		this.size = size;
+	}
+
+	public Long getHits() {
+		return hits;
+	}
+
+	public void setHits(Long hits) {
+		this.hits = hits;
+	}
+
+	public Long getMisses() {
+		return misses;
+	}
+
+	public void setMisses(Long misses) {
+		this.misses = misses;
+	}
+
+	public Double getHitRate() {
+		return hitRate;
+	}
+
+	public void setHitRate(Double hitRate) {
+		this.hitRate = hitRate;
+	}
+
+	public Long getEvictions() {
+		return evictions;
+	}
+
+	public void setEvictions(Long evictions) {
+		this.evictions = evictions;
+	}
+
+}
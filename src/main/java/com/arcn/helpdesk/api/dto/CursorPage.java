@@ -0,0 +1,44 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+// Página da paginação por cursor: conteúdo e o token opaco para buscar a próxima
+public class CursorPage<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private List<T> content;
+	private String next;
+	private boolean hasNext;
+
+	public CursorPage(List<T> content, String next) {
+		this.content = content;
+		this.next = next;
+		this.hasNext = next != null;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public void setContent(List<T> content) {
+		this.content = content;
+	}
+
+	public String getNext() {
+		return next;
+	}
+
+	public void setNext(String next) {
+		this.next = next;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+// Resultado da importação: totais e os erros por linha (limitados a maxErrors para manter a memória constante)
+public class ImportReport implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private long total;
+	private long imported;
+	private long failed;
+	private boolean errorsTruncated;
+	private List<ImportRowError> errors = new ArrayList<ImportRowError>();
+	private transient int maxErrors;
+
+	public ImportReport(int maxErrors) {
+		this.maxErrors = maxErrors;
+	}
+
+	public void addRow() {
+		this.total++;
+	}
+
+	public void addImported(long amount) {
+		this.imported += amount;
+	}
+
+	public void addError(long line, String message) {
+		this.failed++;
+		if (this.errors.size() < this.maxErrors) {
+			this.errors.add(new ImportRowError(line, message));
+		} else {
+			this.errorsTruncated = true;
+		}
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public long getFailed() {
+		return failed;
+	}
+
+	public boolean isErrorsTruncated() {
+		return errorsTruncated;
+	}
+
+	public List<ImportRowError> getErrors() {
+		return errors;
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+
+// Erro de uma linha da importação (número da linha no arquivo enviado)
+public class ImportRowError implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private long line;
+	private String message;
+
+	public ImportRowError(long line, String message) {
+		this.line = line;
+		this.message = message;
+	}
+
+	public long getLine() {
+		return line;
+	}
+
+	public void setLine(long line) {
+		this.line = line;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
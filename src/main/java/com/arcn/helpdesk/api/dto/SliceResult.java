@@ -0,0 +1,66 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+// Página sem count: indica apenas se existe próxima página; o total vem somente quando solicitado
+public class SliceResult<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private List<T> content;
+	private int page;
+	private int size;
+	private boolean hasNext;
+	private Long total;
+
+	public SliceResult(Slice<T> slice, Long total) {
+		this.content = slice.getContent();
+		this.page = slice.getNumber();
+		this.size = slice.getSize();
+		this.hasNext = slice.hasNext();
+		this.total = total;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public void setContent(List<T> content) {
+		this.content = content;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+
+	public Long getTotal() {
+		return total;
+	}
+
+	public void setTotal(Long total) {
+		this.total = total;
+	}
+
+}
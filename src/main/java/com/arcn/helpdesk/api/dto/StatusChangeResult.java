@@ -0,0 +1,43 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+
+// Resultado da mudança de status em lote para um ticket (success = false indica conflito ou ticket inexistente)
+public class StatusChangeResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private String id;
+	private boolean success;
+	private String message;
+
+	public StatusChangeResult(String id, boolean success, String message) {
+		this.id = id;
+		this.success = success;
+		this.message = message;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public void setSuccess(boolean success) {
+		this.success = success;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+}
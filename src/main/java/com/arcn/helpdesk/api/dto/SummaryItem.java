@@ -0,0 +1,60 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Linha de um resumo agrupado: chave do grupo, total e contagem por status
+public class SummaryItem implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private String key;
+	private String label;
+	private Long total;
+	private Map<String, Long> amounts;
+
+	public SummaryItem() {
+	}
+
+	public SummaryItem(String key) {
+		this.key = key;
+		this.label = key;
+		this.total = 0L;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public Long getTotal() {
+		return total;
+	}
+
+	public void setTotal(Long total) {
+		this.total = total;
+	}
+
+	public Map<String, Long> getAmounts() {
+		if (this.amounts == null) {
+			this.amounts = new LinkedHashMap<String, Long>();
+		}
+		return amounts;
+	}
+
+	public void setAmounts(Map<String, Long> amounts) {
+		this.amounts = amounts;
+	}
+
+}
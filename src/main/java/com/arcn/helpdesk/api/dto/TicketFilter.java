@@ -0,0 +1,125 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+
+// Filtros aplicados nas listagens de tickets (campos nulos ou vazios são ignorados)
+public class TicketFilter implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	private Integer number;
+	private String title;
+	private Set<StatusEnum> statuses;
+	private Set<PriorityEnum> priorities;
+	private String userId;
+	private String assignedUserId;
+
+	public Integer getNumber() {
+		return number;
+	}
+
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public Set<StatusEnum> getStatuses() {
+		return statuses;
+	}
+
+	public void setStatuses(Set<StatusEnum> statuses) {
+		this.statuses = statuses;
+	}
+
+	public Set<PriorityEnum> getPriorities() {
+		return priorities;
+	}
+
+	public void setPriorities(Set<PriorityEnum> priorities) {
+		this.priorities = priorities;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public String getAssignedUserId() {
+		return assignedUserId;
+	}
+
+	public void setAssignedUserId(String assignedUserId) {
+		this.assignedUserId = assignedUserId;
+	}
+
+	// Converte "New,Assigned" em {New, Assigned}; vazio ou nulo = não informado
+	public static Set<StatusEnum> statusesOf(String values) {
+		return parse(StatusEnum.class, values, "Status inválido: ");
+	}
+
+	// Converte "High,Normal" em {High, Normal}; vazio ou nulo = não informado
+	public static Set<PriorityEnum> prioritiesOf(String values) {
+		return parse(PriorityEnum.class, values, "Prioridade inválida: ");
+	}
+
+	private static <E extends Enum<E>> Set<E> parse(Class<E> type, String values, String message) {
+		if (values == null || values.trim().isEmpty()) {
+			return null;
+		}
+		Set<E> parsed = EnumSet.noneOf(type);
+		for (String value : values.split(",")) {
+			String name = value.trim();
+			if (name.isEmpty()) {
+				continue;
+			}
+			E found = null;
+			for (E constant : type.getEnumConstants()) {
+				if (constant.name().equalsIgnoreCase(name)) {
+					found = constant;
+				}
+			}
+			if (found == null) {
+				throw new IllegalArgumentException(message + name);
+			}
+			parsed.add(found);
+		}
+		return parsed.isEmpty() ? null : Collections.unmodifiableSet(parsed);
+	}
+
+	// Filtros iguais compartilham o mesmo total no cache de contagem
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof TicketFilter)) {
+			return false;
+		}
+		TicketFilter filter = (TicketFilter) other;
+		return Objects.equals(number, filter.number) && Objects.equals(title, filter.title)
+				&& Objects.equals(statuses, filter.statuses) && Objects.equals(priorities, filter.priorities)
+				&& Objects.equals(userId, filter.userId) && Objects.equals(assignedUserId, filter.assignedUserId);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(number, title, statuses, priorities, userId, assignedUserId);
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.arcn.helpdesk.api.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+import com.arcn.helpdesk.api.security.entity.UserSnapshot;
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Linha das listagens de tickets: lida com projeção, sem descrição, anexo e referências de usuário
+public class TicketSummary implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Campos do documento Ticket lidos nas listagens (mesmos nomes das propriedades abaixo)
+	public static final String[] FIELDS = { "id", "number", "title", "status", "priority", "date",
+			"userSnapshot", "assignedUserSnapshot", "attachment" };
+
+	private String id;
+	private Integer number;
+	private String title;
+	private StatusEnum status;
+	private PriorityEnum priority;
+	private Date date;
+	private UserSnapshot userSnapshot;
+	private UserSnapshot assignedUserSnapshot;
+	// Somente a referência: a listagem busca a miniatura em /api/ticket/{id}/attachment/thumbnail
+	private TicketAttachment attachment;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Integer getNumber() {
+		return number;
+	}
+
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
+	public StatusEnum getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+
+	public PriorityEnum getPriority() {
+		return priority;
+	}
+
+	public void setPriority(PriorityEnum priority) {
+		this.priority = priority;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public void setDate(Date date) {
+		this.date = date;
+	}
+
+	@JsonProperty("user")
+	public UserSnapshot getUserSnapshot() {
+		return userSnapshot;
+	}
+
+	@JsonProperty("user")
+	public void setUserSnapshot(UserSnapshot userSnapshot) {
+		this.userSnapshot = userSnapshot;
+	}
+
+	@JsonProperty("assignedUser")
+	public UserSnapshot getAssignedUserSnapshot() {
+		return assignedUserSnapshot;
+	}
+
+	@JsonProperty("assignedUser")
+	public void setAssignedUserSnapshot(UserSnapshot assignedUserSnapshot) {
+		this.assignedUserSnapshot = assignedUserSnapshot;
+	}
+
+	public TicketAttachment getAttachment() {
+		return attachment;
+	}
+
+	public void setAttachment(TicketAttachment attachment) {
+		this.attachment = attachment;
+	}
+
+}
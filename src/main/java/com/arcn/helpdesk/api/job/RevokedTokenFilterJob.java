@@ -0,0 +1,36 @@
+package com.arcn.helpdesk.api.job;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.service.TokenRevocationService;
+
+// Job que reconstrói periodicamente o filtro de Bloom dos tokens revogados
+@Component
+public class RevokedTokenFilterJob {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private TokenRevocationService tokenRevocationService;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void initialize() {
+		rebuild();
+	}
+
+	@Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval}", initialDelayString = "${auth.revocation.rebuild-interval}")
+	public void rebuild() {
+		try {
+			tokenRevocationService.rebuild();
+		} catch (RuntimeException e) {
+			// Mantém o filtro anterior; sem filtro as verificações continuam indo ao banco
+			logger.error("HelpDesk-API | could not rebuild revoked token filter: " + e.getMessage());
+		}
+	}
+}
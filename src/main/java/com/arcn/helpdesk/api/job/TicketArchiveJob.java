@@ -0,0 +1,30 @@
+package com.arcn.helpdesk.api.job;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.service.TicketService;
+
+// Job que move os tickets fechados antigos (com o histórico) para o arquivo comprimido
+@Component
+public class TicketArchiveJob {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Scheduled(cron = "${ticket.archive.cron}")
+	public void archive() {
+		try {
+			long archived = ticketService.archiveClosedTickets();
+			logger.info("HelpDesk-API | archived " + archived + " closed tickets");
+		} catch (RuntimeException e) {
+			// Tickets não arquivados continuam na coleção principal e entram na próxima execução
+			logger.error("HelpDesk-API | could not archive closed tickets: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package com.arcn.helpdesk.api.job;
+
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.arcn.helpdesk.api.service.TicketCounterService;
+
+// Job que reconstrói os contadores de status e reporta divergências
+@Component
+public class TicketCounterReconcileJob {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private TicketCounterService ticketCounterService;
+
+	@Scheduled(cron = "${ticket.counter.reconcile-cron}")
+	public void reconcile() {
+		Map<StatusEnum, Long> drift = ticketCounterService.reconcile();
+		if (drift.isEmpty()) {
+			logger.info("HelpDesk-API | ticket counters reconciled, no drift");
+		} else {
+			logger.warn("HelpDesk-API | ticket counters drift (stored - actual) corrected: " + drift);
+		}
+	}
+}
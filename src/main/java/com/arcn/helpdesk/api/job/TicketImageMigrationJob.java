@@ -0,0 +1,40 @@
+package com.arcn.helpdesk.api.job;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.service.TicketService;
+
+// Job que move para o BlobStore as imagens em base64 ainda gravadas nos tickets e gera as miniaturas pendentes
+@Component
+public class TicketImageMigrationJob {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private TicketService ticketService;
+
+	@Async("migrationExecutor")
+	@EventListener(ApplicationReadyEvent.class)
+	public void migrate() {
+		try {
+			long migrated = ticketService.migrateInlineImages();
+			if (migrated > 0) {
+				logger.info("HelpDesk-API | migrated " + migrated + " inline ticket images to blob store");
+			}
+			// Miniaturas que ficaram pendentes (fila cheia ou queda antes do processamento)
+			long processed = ticketService.processPendingImages();
+			if (processed > 0) {
+				logger.info("HelpDesk-API | generated thumbnails for " + processed + " ticket attachments");
+			}
+		} catch (RuntimeException e) {
+			// A migração é retomada no próximo start; tickets não migrados continuam com a imagem inline
+			logger.error("HelpDesk-API | could not migrate inline ticket images: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.arcn.helpdesk.api.job;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.service.TicketService;
+
+// Job que mantém atualizadas as cópias dos usuários gravadas nos tickets
+@Component
+public class UserSnapshotPropagationJob {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private TicketService ticketService;
+
+	// Executado fora da requisição depois que um usuário é alterado
+	@Async("snapshotExecutor")
+	public void propagate(User user) {
+		ticketService.propagateUserSnapshot(user);
+	}
+
+	// Preenche as cópias dos tickets gravados antes da existência delas
+	@Async("snapshotExecutor")
+	@EventListener(ApplicationReadyEvent.class)
+	public void backfill() {
+		long updated = ticketService.backfillUserSnapshots();
+		if (updated > 0) {
+			logger.info("HelpDesk-API | user snapshots backfilled on " + updated + " tickets");
+		}
+	}
+}
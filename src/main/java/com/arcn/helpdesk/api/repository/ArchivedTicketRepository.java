@@ -0,0 +1,11 @@
+package com.arcn.helpdesk.api.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.arcn.helpdesk.api.security.entity.ArchivedTicket;
+
+// Tickets arquivados (consultados somente quando o ticket não está na coleção principal)
+public interface ArchivedTicketRepository extends MongoRepository<ArchivedTicket, String> {
+
+	ArchivedTicket findByNumber(Integer number);
+}
@@ -1,10 +1,17 @@
 package com.arcn.helpdesk.api.repository;
 
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import com.arcn.helpdesk.api.security.entity.ChangeStatus;
 
 public interface ChangeStatusRepository extends MongoRepository<ChangeStatus, String> {
 
-	Iterable<ChangeStatus> findByTicketIdOrderByDateChangeStatusDesc(String ticketId);
+	// Histórico do ticket sem a referência de volta para o próprio ticket (projeção)
+	@Query(value = "{ 'ticket.$id' : ?0 }", fields = "{ 'ticket' : 0 }")
+	List<ChangeStatus> findHistoryByTicketId(ObjectId ticketId, Sort sort);
 }
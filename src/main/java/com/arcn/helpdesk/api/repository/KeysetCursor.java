@@ -0,0 +1,51 @@
+package com.arcn.helpdesk.api.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+// Posição da paginação por cursor: último (date, id) entregue ao cliente, codificado em um token opaco
+public class KeysetCursor {
+
+	private static final String SEPARATOR = ":";
+
+	private final Date date;
+	private final String id;
+
+	public KeysetCursor(Date date, String id) {
+		this.date = date;
+		this.id = id;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String encode() {
+		String key = (date == null ? "" : String.valueOf(date.getTime())) + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Token nulo ou vazio indica a primeira página
+	public static KeysetCursor decode(String token) {
+		if (token == null || token.isEmpty()) {
+			return null;
+		}
+		try {
+			String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = key.indexOf(SEPARATOR);
+			String date = key.substring(0, separator);
+			String id = key.substring(separator + 1);
+			if (id.isEmpty()) {
+				throw new IllegalArgumentException("Cursor inválido");
+			}
+			return new KeysetCursor(date.isEmpty() ? null : new Date(Long.parseLong(date)), id);
+		} catch (RuntimeException e) {
+			throw new IllegalArgumentException("Cursor inválido");
+		}
+	}
+}
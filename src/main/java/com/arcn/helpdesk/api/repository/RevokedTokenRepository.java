@@ -0,0 +1,10 @@
+package com.arcn.helpdesk.api.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.arcn.helpdesk.api.security.entity.RevokedToken;
+
+// Tokens revogados, pelo resumo SHA-256 do token (consultado somente quando o filtro de Bloom indica possível revogação)
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+}
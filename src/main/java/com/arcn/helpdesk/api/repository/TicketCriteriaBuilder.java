@@ -0,0 +1,108 @@
+package com.arcn.helpdesk.api.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import com.arcn.helpdesk.api.dto.TicketFilter;
+
+// Monta a consulta de tickets somente com os predicados informados:
+// igualdade/$in nos enums e ids, regex apenas no título
+public final class TicketCriteriaBuilder {
+
+	private final List<Criteria> criteria = new ArrayList<Criteria>();
+
+	private TicketCriteriaBuilder() {
+	}
+
+	public static TicketCriteriaBuilder create() {
+		return new TicketCriteriaBuilder();
+	}
+
+	public static TicketCriteriaBuilder from(TicketFilter filter) {
+		TicketCriteriaBuilder builder = new TicketCriteriaBuilder();
+		if (filter == null) {
+			return builder;
+		}
+		return builder.number(filter.getNumber())
+				.title(filter.getTitle())
+				.in("status", filter.getStatuses())
+				.in("priority", filter.getPriorities())
+				.user(filter.getUserId())
+				.assignedUser(filter.getAssignedUserId());
+	}
+
+	public TicketCriteriaBuilder number(Integer number) {
+		if (number != null && number > 0) {
+			criteria.add(where("number").is(number));
+		}
+		return this;
+	}
+
+	public TicketCriteriaBuilder title(String title) {
+		if (hasText(title)) {
+			criteria.add(where("title").regex(Pattern.quote(title), "i"));
+		}
+		return this;
+	}
+
+	public TicketCriteriaBuilder user(String userId) {
+		if (hasText(userId)) {
+			criteria.add(where("user.$id").is(objectId(userId)));
+		}
+		return this;
+	}
+
+	public TicketCriteriaBuilder assignedUser(String assignedUserId) {
+		if (hasText(assignedUserId)) {
+			criteria.add(where("assignedUser.$id").is(objectId(assignedUserId)));
+		}
+		return this;
+	}
+
+	// Um valor vira $eq, vários viram $in
+	public TicketCriteriaBuilder in(String field, Collection<? extends Enum<?>> values) {
+		if (values == null || values.isEmpty()) {
+			return this;
+		}
+		List<String> names = new ArrayList<String>();
+		for (Enum<?> value : values) {
+			names.add(value.name());
+		}
+		criteria.add(names.size() == 1 ? where(field).is(names.get(0)) : where(field).in(names));
+		return this;
+	}
+
+	// Predicado adicional (ex.: a posição do cursor)
+	public TicketCriteriaBuilder and(Criteria extra) {
+		if (extra != null) {
+			criteria.add(extra);
+		}
+		return this;
+	}
+
+	public Criteria build() {
+		if (criteria.isEmpty()) {
+			return new Criteria();
+		}
+		if (criteria.size() == 1) {
+			return criteria.get(0);
+		}
+		return new Criteria().andOperator(criteria.toArray(new Criteria[criteria.size()]));
+	}
+
+	// As referências (@DBRef) guardam o id do usuário como ObjectId
+	static Object objectId(String id) {
+		return ObjectId.isValid(id) ? new ObjectId(id) : id;
+	}
+
+	private static boolean hasText(String value) {
+		return value != null && !value.isEmpty();
+	}
+}
@@ -1,26 +1,12 @@
 package com.arcn.helpdesk.api.repository;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.arcn.helpdesk.api.security.entity.Ticket;
 
 // Interfaçe do Spring Data MongoDB para implementar metodos para a conexao com o banco 
+// As buscas com filtros ficam em TicketRepositoryCustom (TicketCriteriaBuilder)
                                                         //Documento  //Tipo Id 
-public interface TicketRepository extends MongoRepository<Ticket, String> {
+public interface TicketRepository extends MongoRepository<Ticket, String>, TicketRepositoryCustom {
 
-	
-	Page<Ticket> findByUserIdOrderByDateDesc(Pageable pages,String userId);
-	
-	Page<Ticket> findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityIgnoreCaseContainingOrderByDateDesc(
-			String title,String status,String priority,Pageable pages);
-	
-	Page<Ticket> findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityIgnoreCaseContainingAndUserIdOrderByDateDesc(
-			String title,String status,String priority,String userId,Pageable pages);
-	
-	Page<Ticket> findByNumber(Integer number,Pageable pages);
-	
-	Page<Ticket> findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityIgnoreCaseContainingAndAssignedUserIdOrderByDateDesc(
-			String title,String status,String priority,String assignedUserId,Pageable pages);
 }
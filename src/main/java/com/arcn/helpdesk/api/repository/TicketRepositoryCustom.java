@@ -0,0 +1,32 @@
+package com.arcn.helpdesk.api.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.util.CloseableIterator;
+
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.dto.TicketSummary;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+
+// Consultas de Ticket montadas com MongoTemplate (implementadas em TicketRepositoryImpl)
+// As listagens leem somente os campos de TicketSummary; o documento completo fica para o detalhe
+public interface TicketRepositoryCustom {
+
+	// Busca paginada com total, ordenada por (date desc, id desc)
+	Page<TicketSummary> findPage(TicketFilter filter, Pageable pageable);
+
+	// Busca os próximos tickets depois do cursor na ordem (date desc, id desc), sem skip e sem count
+	List<TicketSummary> findAfter(TicketFilter filter, KeysetCursor cursor, int limit);
+
+	// Busca uma página sem count: lê um registro a mais apenas para saber se existe próxima página
+	Slice<TicketSummary> findSlice(TicketFilter filter, Pageable pageable);
+
+	// Cursor sobre todos os tickets do filtro, na ordem (date desc, id desc), sem imagem, anexo e DBRefs de usuário
+	CloseableIterator<Ticket> stream(TicketFilter filter);
+
+	// Total de tickets que atendem ao filtro
+	long count(TicketFilter filter);
+}
@@ -0,0 +1,84 @@
+package com.arcn.helpdesk.api.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.dto.TicketSummary;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+
+// Implementação das consultas customizadas do TicketRepository
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	public Page<TicketSummary> findPage(TicketFilter filter, Pageable pageable) {
+		Query query = new Query(TicketCriteriaBuilder.from(filter).build());
+		long total = this.mongoTemplate.count(query, Ticket.class);
+		query.with(dateOrder()).with(pageable);
+		return new PageImpl<TicketSummary>(findSummaries(query), pageable, total);
+	}
+
+	public List<TicketSummary> findAfter(TicketFilter filter, KeysetCursor cursor, int limit) {
+		Criteria seek = null;
+		if (cursor != null) {
+			// Seek: (date < d) ou (date = d e id < id do cursor)
+			seek = new Criteria().orOperator(
+					where("date").lt(cursor.getDate()),
+					where("date").is(cursor.getDate()).and("id").lt(cursor.getId()));
+		}
+		Query query = new Query(TicketCriteriaBuilder.from(filter).and(seek).build())
+				.with(dateOrder()).limit(limit);
+		return findSummaries(query);
+	}
+
+	public Slice<TicketSummary> findSlice(TicketFilter filter, Pageable pageable) {
+		Query query = new Query(TicketCriteriaBuilder.from(filter).build()).with(dateOrder())
+				.skip(pageable.getOffset())
+				.limit(pageable.getPageSize() + 1);
+		List<TicketSummary> tickets = findSummaries(query);
+		boolean hasNext = tickets.size() > pageable.getPageSize();
+		if (hasNext) {
+			tickets = tickets.subList(0, pageable.getPageSize());
+		}
+		return new SliceImpl<TicketSummary>(tickets, pageable, hasNext);
+	}
+
+	public CloseableIterator<Ticket> stream(TicketFilter filter) {
+		Query query = new Query(TicketCriteriaBuilder.from(filter).build()).with(dateOrder());
+		query.fields().exclude("image").exclude("attachment").exclude("user").exclude("assignedUser");
+		return this.mongoTemplate.stream(query, Ticket.class);
+	}
+
+	public long count(TicketFilter filter) {
+		return this.mongoTemplate.count(new Query(TicketCriteriaBuilder.from(filter).build()), Ticket.class);
+	}
+
+	// Projeção dos campos da listagem, lida direto em TicketSummary (sem converter o Ticket inteiro)
+	private List<TicketSummary> findSummaries(Query query) {
+		for (String field : TicketSummary.FIELDS) {
+			query.fields().include(field);
+		}
+		return this.mongoTemplate.find(query, TicketSummary.class, this.mongoTemplate.getCollectionName(Ticket.class));
+	}
+
+	// Mesma ordenação dos métodos ...OrderByDateDesc, com o id para desempate
+	static Sort dateOrder() {
+		return new Sort(Direction.DESC, "date").and(new Sort(Direction.DESC, "id"));
+	}
+}
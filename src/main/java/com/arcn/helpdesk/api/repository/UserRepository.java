@@ -1,13 +1,19 @@
 package com.arcn.helpdesk.api.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import com.arcn.helpdesk.api.security.entity.User;
 
 // Interfaçe do Spring Data MongoDB para implementar metodos para a conexao com o banco 
                                        //MongoRepository <Documento, Tipo Id> 
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
 
 	User findByEmail(String email);
 
+	// Usuários de vários e-mails em uma única consulta (importação de tickets)
+	List<User> findByEmailIn(Collection<String> emails);
+
 }
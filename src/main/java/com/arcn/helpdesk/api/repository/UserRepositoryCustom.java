@@ -0,0 +1,20 @@
+package com.arcn.helpdesk.api.repository;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.arcn.helpdesk.api.security.entity.User;
+
+// Consultas de User montadas com MongoTemplate (implementadas em UserRepositoryImpl)
+public interface UserRepositoryCustom {
+
+	// Busca os próximos usuários depois do cursor na ordem do id, sem skip e sem count
+	List<User> findAfter(KeysetCursor cursor, int limit);
+
+	// Grava somente o hash da senha (rehash no login), sem regravar o documento inteiro
+	void updatePassword(String id, String password);
+
+	// Aplica um update parcial (PATCH) e retorna o usuário já alterado
+	User patch(String id, Update update);
+}
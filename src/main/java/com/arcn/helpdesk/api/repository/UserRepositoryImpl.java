@@ -0,0 +1,40 @@
+package com.arcn.helpdesk.api.repository;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.arcn.helpdesk.api.security.entity.User;
+
+// Implementação das consultas customizadas do UserRepository
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	public List<User> findAfter(KeysetCursor cursor, int limit) {
+		Query query = new Query();
+		if (cursor != null) {
+			query.addCriteria(where("id").gt(cursor.getId()));
+		}
+		query.with(new Sort(Direction.ASC, "id")).limit(limit);
+		return this.mongoTemplate.find(query, User.class);
+	}
+
+	public void updatePassword(String id, String password) {
+		this.mongoTemplate.updateFirst(new Query(where("id").is(id)), new Update().set("password", password), User.class);
+	}
+
+	public User patch(String id, Update update) {
+		return this.mongoTemplate.findAndModify(new Query(where("id").is(id)), update,
+				FindAndModifyOptions.options().returnNew(true), User.class);
+	}
+}
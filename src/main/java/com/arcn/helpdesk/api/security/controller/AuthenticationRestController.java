@@ -1,16 +1,17 @@
 package com.arcn.helpdesk.api.security.controller;
 
+import java.util.concurrent.CompletableFuture;
+
 import javax.servlet.http.HttpServletRequest;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -19,7 +20,9 @@ import org.springframework.web.bind.annotation.RestController;
 import com.arcn.helpdesk.api.security.entity.User;
 import com.arcn.helpdesk.api.security.jwt.JwtAuthenticationRequest;
 import com.arcn.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.arcn.helpdesk.api.security.jwt.VerifiedClaims;
 import com.arcn.helpdesk.api.security.model.CurrentUser;
+import com.arcn.helpdesk.api.security.service.LoginService;
 import com.arcn.helpdesk.api.service.UserService;
 
 @RestController
@@ -27,46 +30,62 @@ import com.arcn.helpdesk.api.service.UserService;
 public class AuthenticationRestController {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginService loginService;
 
     @Autowired
-    private JwtTokenUtil jwtTokenUtil;
+    @Qualifier("loginExecutor")
+    private ThreadPoolTaskExecutor loginExecutor;
 
     @Autowired
-    private UserDetailsService userDetailsService;
-    
+    private JwtTokenUtil jwtTokenUtil;
+
     @Autowired
     private UserService userService;
 
+    // O hash da senha roda no loginExecutor: o login não ocupa threads do Tomcat e, com a fila cheia, responde 503
     @PostMapping(value="/api/auth")
-    public ResponseEntity<?> createAuthenticationToken(@RequestBody JwtAuthenticationRequest authenticationRequest) throws AuthenticationException {
+    public CompletableFuture<ResponseEntity<?>> createAuthenticationToken(@RequestBody JwtAuthenticationRequest authenticationRequest) {
+        try {
+            return CompletableFuture.supplyAsync(() -> login(authenticationRequest), loginExecutor);
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build());
+        }
+    }
 
-        final Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        authenticationRequest.getEmail(),
-                        authenticationRequest.getPassword()
-                )
-        );
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(authenticationRequest.getEmail());
-        final String token = jwtTokenUtil.generateToken(userDetails);
-        final User user = userService.findByEmail(authenticationRequest.getEmail());
-        user.setPassword(null);
-        return ResponseEntity.ok(new CurrentUser(token, user));
+    private ResponseEntity<?> login(JwtAuthenticationRequest authenticationRequest) {
+        try {
+            return ResponseEntity.ok(loginService.login(authenticationRequest.getEmail(), authenticationRequest.getPassword()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
     }
 
     @PostMapping(value="/api/refresh")
     public ResponseEntity<?> refreshAndGetAuthenticationToken(HttpServletRequest request) {
-        String token = request.getHeader("Authorization");
-        String username = jwtTokenUtil.getUsernameFromToken(token);
-        final User user = userService.findByEmail(username);
+        VerifiedClaims claims = jwtTokenUtil.getClaims(request);
         
-        if (jwtTokenUtil.canTokenBeRefreshed(token)) {
-            String refreshedToken = jwtTokenUtil.refreshToken(token);
-            return ResponseEntity.ok(new CurrentUser(refreshedToken, user));
-        } else {
+        if (claims == null) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        // Usuário removido não renova o token
+        final User user = userService.findByEmail(claims.getUsername());
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String refreshedToken = jwtTokenUtil.refreshToken(user);
+        return ResponseEntity.ok(new CurrentUser(refreshedToken, user));
+    }
+
+    // Logout: revoga o token da requisição até a sua expiração
+    @PostMapping(value="/api/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        VerifiedClaims claims = jwtTokenUtil.getClaims(request);
+        if (claims == null) {
             return ResponseEntity.badRequest().body(null);
         }
+        jwtTokenUtil.revoke(claims);
+        return ResponseEntity.noContent().build();
     }
 
 }
@@ -0,0 +1,108 @@
+package com.arcn.helpdesk.api.security.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+
+// Ticket fechado movido para o arquivo: documento e histórico em BSON comprimido (zlib), com o mesmo id do ticket
+@Document
+public class ArchivedTicket {
+
+	@Id
+	private String id;
+
+	private Integer number;
+
+	private Date date;
+
+	private Date archivedAt;
+
+	// Campos dos resumos agrupados, fora do conteúdo comprimido para que o $group os leia
+	private StatusEnum status;
+
+	private PriorityEnum priority;
+
+	private String userId;
+
+	private String assignedUserId;
+
+	// { ticket: <documento do ticket>, history: [<documentos do ChangeStatus>] }
+	private byte[] data;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Integer getNumber() {
+		return number;
+	}
+
+	public void setNumber(Integer number) {
+		this.number = number;
+	}
+
+	public Date getDate() {
+		return date;
+	}
+
+	public void setDate(Date date) {
+		this.date = date;
+	}
+
+	public Date getArchivedAt() {
+		return archivedAt;
+	}
+
+	public void setArchivedAt(Date archivedAt) {
+		this.archivedAt = archivedAt;
+	}
+
+	public byte[] getData() {
+		return data;
+	}
+
+	public void setData(byte[] data) {
+		this.data = data;
+	}
+
+	public StatusEnum getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusEnum status) {
+		this.status = status;
+	}
+
+	public PriorityEnum getPriority() {
+		return priority;
+	}
+
+	public void setPriority(PriorityEnum priority) {
+		this.priority = priority;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public String getAssignedUserId() {
+		return assignedUserId;
+	}
+
+	public void setAssignedUserId(String assignedUserId) {
+		this.assignedUserId = assignedUserId;
+	}
+
+}
@@ -17,7 +17,8 @@ public class ChangeStatus {
 	@DBRef
 	private Ticket ticket;
 
-	@DBRef
+	// Resolvido em lote pelo UserReferenceResolver
+	@DBRef(lazy = true)
 	private User userChange;
 
 	private Date dateChangeStatus;
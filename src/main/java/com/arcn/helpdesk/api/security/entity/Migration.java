@@ -0,0 +1,33 @@
+package com.arcn.helpdesk.api.security.entity;
+
+import java.util.Date;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Marca de uma migração de dados já aplicada (não é refeita nas próximas subidas)
+@Document
+public class Migration {
+
+	@Id
+	private String id;
+
+	private Date appliedAt;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Date getAppliedAt() {
+		return appliedAt;
+	}
+
+	public void setAppliedAt(Date appliedAt) {
+		this.appliedAt = appliedAt;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.arcn.helpdesk.api.security.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Contador de uma sequência (ex.: número dos tickets), incrementado com findAndModify
+@Document
+public class Sequence {
+
+	@Id
+	private String id;
+
+	private Long value;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Long getValue() {
+		return value;
+	}
+
+	public void setValue(Long value) {
+		this.value = value;
+	}
+
+}
@@ -5,18 +5,28 @@ import java.util.List;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import com.arcn.helpdesk.api.security.enums.PriorityEnum;
 import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Document
 public class Ticket {
 
+	// Nome da sequência usada para numerar os tickets
+	public static final String NUMBER_SEQUENCE = "ticketNumber";
+
 	@Id
 	private String id;
 
+	// Versão para controle de concorrência otimista (incrementada a cada alteração)
+	@Version
+	private Long version;
+
 	@DBRef(lazy = true)
 	private User user;
 
@@ -33,13 +43,25 @@ public class Ticket {
 	@DBRef(lazy = true)
 	private User assignedUser;
 
+	// Cópias dos usuários serializadas como "user" e "assignedUser" no JSON
+	private UserSnapshot userSnapshot;
+
+	private UserSnapshot assignedUserSnapshot;
+
 	private String description;
 
+	// Imagem em base64 gravada no documento (legado: migrada para o BlobStore e substituída por attachment)
 	private String image;
+
+	private TicketAttachment attachment;
 	
 	@Transient
 	private List<ChangeStatus> changes;
 
+	// Lido do arquivo de tickets fechados (somente leitura)
+	@Transient
+	private boolean archived;
+
 	public String getId() {
 		return id;
 	}
@@ -48,10 +70,20 @@ public class Ticket {
 		this.id = id;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	@JsonIgnore
 	public User getUser() {
 		return user;
 	}
 
+	@JsonIgnore
 	public void setUser(User user) {
 		this.user = user;
 	}
@@ -96,14 +128,36 @@ public class Ticket {
 		this.priority = priority;
 	}
 
+	@JsonIgnore
 	public User getAssignedUser() {
 		return assignedUser;
 	}
 
+	@JsonIgnore
 	public void setAssignedUser(User assignedUser) {
 		this.assignedUser = assignedUser;
 	}
 
+	@JsonProperty("user")
+	public UserSnapshot getUserSnapshot() {
+		return userSnapshot;
+	}
+
+	@JsonProperty("user")
+	public void setUserSnapshot(UserSnapshot userSnapshot) {
+		this.userSnapshot = userSnapshot;
+	}
+
+	@JsonProperty("assignedUser")
+	public UserSnapshot getAssignedUserSnapshot() {
+		return assignedUserSnapshot;
+	}
+
+	@JsonProperty("assignedUser")
+	public void setAssignedUserSnapshot(UserSnapshot assignedUserSnapshot) {
+		this.assignedUserSnapshot = assignedUserSnapshot;
+	}
+
 	public String getDescription() {
 		return description;
 	}
@@ -120,6 +174,14 @@ public class Ticket {
 		this.image = image;
 	}
 
+	public TicketAttachment getAttachment() {
+		return attachment;
+	}
+
+	public void setAttachment(TicketAttachment attachment) {
+		this.attachment = attachment;
+	}
+
 	public List<ChangeStatus> getChanges() {
 		return changes;
 	}
@@ -128,4 +190,12 @@ public class Ticket {
 		this.changes = changes;
 	}
 
+	public boolean isArchived() {
+		return archived;
+	}
+
+	public void setArchived(boolean archived) {
+		this.archived = archived;
+	}
+
 }
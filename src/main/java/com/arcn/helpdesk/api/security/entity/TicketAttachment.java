@@ -0,0 +1,102 @@
+package com.arcn.helpdesk.api.security.entity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Referência ao anexo do ticket guardado no BlobStore (o conteúdo não fica no documento do ticket)
+public class TicketAttachment {
+
+	public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+	// Únicos tipos gravados como informados pelo cliente e servidos inline; os demais viram octet-stream
+	public static final List<String> IMAGE_TYPES = Arrays.asList("image/png", "image/jpeg", "image/gif",
+			"image/bmp", "image/webp");
+
+	private String blobId;
+
+	private String filename;
+
+	private String contentType;
+
+	private long length;
+
+	// Imagens derivadas (geradas em segundo plano pelo TicketImageProcessor); null enquanto não processadas
+	private TicketAttachment thumbnail;
+
+	private TicketAttachment preview;
+
+	// Tentativas de gerar as imagens derivadas que falharam (imagem ilegível, grande demais ou erro de leitura)
+	private Integer thumbnailAttempts;
+
+	public String getBlobId() {
+		return blobId;
+	}
+
+	public void setBlobId(String blobId) {
+		this.blobId = blobId;
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+
+	public void setFilename(String filename) {
+		this.filename = filename;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public void setLength(long length) {
+		this.length = length;
+	}
+
+	public TicketAttachment getThumbnail() {
+		return thumbnail;
+	}
+
+	public void setThumbnail(TicketAttachment thumbnail) {
+		this.thumbnail = thumbnail;
+	}
+
+	public TicketAttachment getPreview() {
+		return preview;
+	}
+
+	public void setPreview(TicketAttachment preview) {
+		this.preview = preview;
+	}
+
+	public Integer getThumbnailAttempts() {
+		return thumbnailAttempts;
+	}
+
+	public void setThumbnailAttempts(Integer thumbnailAttempts) {
+		this.thumbnailAttempts = thumbnailAttempts;
+	}
+
+	// Tipo a gravar para o Content-Type informado (sem parâmetros, em minúsculas)
+	public static String safeContentType(String contentType) {
+		if (contentType == null) {
+			return DEFAULT_CONTENT_TYPE;
+		}
+		int parameters = contentType.indexOf(';');
+		String type = (parameters < 0 ? contentType : contentType.substring(0, parameters)).trim()
+				.toLowerCase(Locale.ROOT);
+		return IMAGE_TYPES.contains(type) ? type : DEFAULT_CONTENT_TYPE;
+	}
+
+	public static boolean isImageType(String contentType) {
+		return contentType != null && IMAGE_TYPES.contains(contentType);
+	}
+}
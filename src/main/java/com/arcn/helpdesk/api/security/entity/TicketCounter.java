@@ -0,0 +1,51 @@
+package com.arcn.helpdesk.api.security.entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Documento com os contadores de tickets por status (usado no /summary)
+@Document
+public class TicketCounter {
+
+	// Id do documento que guarda os contadores por StatusEnum
+	public static final String STATUS = "status";
+
+	@Id
+	private String id;
+
+	private Map<String, Long> amounts;
+
+	// Incrementado a cada $inc: a reconciliação só grava os totais se nada mudou desde a leitura
+	private Long version;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public Map<String, Long> getAmounts() {
+		if (this.amounts == null) {
+			this.amounts = new HashMap<String, Long>();
+		}
+		return amounts;
+	}
+
+	public void setAmounts(Map<String, Long> amounts) {
+		this.amounts = amounts;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+}
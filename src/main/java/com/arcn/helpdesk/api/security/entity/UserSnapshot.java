@@ -0,0 +1,60 @@
+package com.arcn.helpdesk.api.security.entity;
+
+import com.arcn.helpdesk.api.security.enums.ProfileEnum;
+
+// Cópia resumida do usuário gravada dentro do Ticket (evita resolver o @DBRef nas listagens)
+public class UserSnapshot {
+
+	private String id;
+
+	private String name;
+
+	private String email;
+
+	private ProfileEnum profile;
+
+	public static UserSnapshot of(User user) {
+		if (user == null) {
+			return null;
+		}
+		UserSnapshot snapshot = new UserSnapshot();
+		snapshot.setId(user.getId());
+		snapshot.setName(user.getName());
+		snapshot.setEmail(user.getEmail());
+		snapshot.setProfile(user.getProfile());
+		return snapshot;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public void setEmail(String email) {
+		this.email = email;
+	}
+
+	public ProfileEnum getProfile() {
+		return profile;
+	}
+
+	public void setProfile(ProfileEnum profile) {
+		this.profile = profile;
+	}
+
+}
@@ -1,5 +1,11 @@
 package com.arcn.helpdesk.api.security.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum StatusEnum {
 	New,
 	Resolved,
@@ -7,6 +13,17 @@ public enum StatusEnum {
 	Disapproved,
 	Assigned,
 	Closed;
+
+	// Grafo de transições: status de origem -> status de destino permitidos
+	// Mantém as transições de antes (qualquer status para outro); só a repetição do status atual é recusada,
+	// o que faz a segunda de duas atribuições concorrentes falhar
+	private static final Map<StatusEnum, Set<StatusEnum>> TRANSITIONS = new EnumMap<StatusEnum, Set<StatusEnum>>(StatusEnum.class);
+
+	static {
+		for (StatusEnum status : values()) {
+			TRANSITIONS.put(status, EnumSet.complementOf(EnumSet.of(status)));
+		}
+	}
 	
 	public static StatusEnum getStatus(String status) {
 		switch(status) {
@@ -19,5 +36,19 @@ public enum StatusEnum {
 			default : return New;
 		}
 	}
-}
 
+	public boolean canMoveTo(StatusEnum next) {
+		return TRANSITIONS.get(this).contains(next);
+	}
+
+	// Status a partir dos quais é permitido chegar neste (condição do update atômico)
+	public Set<StatusEnum> predecessors() {
+		Set<StatusEnum> predecessors = EnumSet.noneOf(StatusEnum.class);
+		for (Map.Entry<StatusEnum, Set<StatusEnum>> entry : TRANSITIONS.entrySet()) {
+			if (entry.getValue().contains(this)) {
+				predecessors.add(entry.getKey());
+			}
+		}
+		return Collections.unmodifiableSet(predecessors);
+	}
+}
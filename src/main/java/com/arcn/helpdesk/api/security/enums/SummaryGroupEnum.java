@@ -0,0 +1,24 @@
+package com.arcn.helpdesk.api.security.enums;
+
+// Chaves de agrupamento disponíveis para os resumos de tickets
+public enum SummaryGroupEnum {
+	Status,
+	Priority,
+	Technician,
+	Customer,
+	Day,
+	Week;
+
+	public static SummaryGroupEnum getGroup(String group) {
+		for (SummaryGroupEnum value : values()) {
+			if (value.name().equalsIgnoreCase(group)) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	public boolean isTimeBucket() {
+		return this == Day || this == Week;
+	}
+}
@@ -0,0 +1,42 @@
+package com.arcn.helpdesk.api.security.jwt;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.arcn.helpdesk.api.security.model.CurrentPrincipal;
+import com.arcn.helpdesk.api.service.UserService;
+
+// Injeta o CurrentPrincipal nos controllers a partir das claims já verificadas pelo filtro JWT
+@Component
+public class CurrentPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+
+	@Autowired
+	private UserService userService;
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return CurrentPrincipal.class.equals(parameter.getParameterType());
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+		VerifiedClaims claims = jwtTokenUtil.getClaims(webRequest.getNativeRequest(HttpServletRequest.class));
+		if (claims == null) {
+			return null;
+		}
+		CurrentPrincipal principal = claims.getPrincipal();
+		// Tokens emitidos antes das claims de id e perfil: busca o usuário (cache por e-mail)
+		return principal != null ? principal : CurrentPrincipal.of(userService.findByEmail(claims.getUsername()));
+	}
+}
@@ -15,6 +15,8 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.arcn.helpdesk.api.security.model.CurrentPrincipal;
+
 public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
 
 	@Autowired
@@ -25,12 +27,16 @@ public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
 
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
 			throws ServletException, IOException {
-		String authToken = request.getHeader("Authorization");
-		String username = jwtTokenUtil.getUsernameFromToken(authToken);
+		// Verifica o token uma única vez e deixa as claims na requisição para os controllers
+		VerifiedClaims claims = jwtTokenUtil.getClaims(request);
+		String username = claims == null ? null : claims.getUsername();
 
 		if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-			UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-			if (jwtTokenUtil.validateToken(authToken, userDetails)) {
+			// Token com id e perfil dispensa a consulta ao usuário; tokens antigos ainda passam pelo UserDetailsService
+			CurrentPrincipal principal = claims.getPrincipal();
+			UserDetails userDetails = principal != null ? JwtUserFactory.create(principal)
+					: this.userDetailsService.loadUserByUsername(username);
+			if (jwtTokenUtil.validateClaims(claims, userDetails)) {
 				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
 						userDetails, null, userDetails.getAuthorities());
 				authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -1,14 +1,28 @@
 package com.arcn.helpdesk.api.security.jwt;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.service.TokenRevocationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -20,6 +34,9 @@ public class JwtTokenUtil implements Serializable {
     static final String CLAIM_KEY_USERNAME = "sub";
     static final String CLAIM_KEY_CREATED = "created";
     static final String CLAIM_KEY_EXPIRED = "exp";
+    static final String CLAIM_KEY_ID = "uid";
+    static final String CLAIM_KEY_NAME = "name";
+    static final String CLAIM_KEY_PROFILE = "profile";
 
     @Value("${jwt.secret}")
     private String secret;
@@ -27,26 +44,88 @@ public class JwtTokenUtil implements Serializable {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    public String getUsernameFromToken(String token) {
-        String username;
-        try {
-            final Claims claims = getClaimsFromToken(token);
-            username = claims.getSubject();
-        } catch (Exception e) {
-            username = null;
+    @Value("${jwt.verified-cache.ttl}")
+    private Long verifiedCacheTtl;
+
+    @Value("${jwt.verified-cache.max-size}")
+    private Long verifiedCacheMaxSize;
+
+    @Autowired
+    private transient TokenRevocationService tokenRevocationService;
+
+    // Tokens verificados recentemente, pelo resumo SHA-256 (evita refazer o HS512 a cada requisição)
+    private transient Cache<String, VerifiedClaims> verified;
+
+    @PostConstruct
+    public void init() {
+        verified = Caffeine.newBuilder()
+                .expireAfterWrite(verifiedCacheTtl, TimeUnit.SECONDS)
+                .maximumSize(verifiedCacheMaxSize)
+                .build();
+    }
+
+    // Claims verificadas da requisição: o token é verificado no máximo uma vez por requisição
+    public VerifiedClaims getClaims(HttpServletRequest request) {
+        Object current = request.getAttribute(VerifiedClaims.REQUEST_ATTRIBUTE);
+        if (current instanceof VerifiedClaims) {
+            return (VerifiedClaims) current;
+        }
+        VerifiedClaims claims = verify(request.getHeader("Authorization"));
+        if (claims != null) {
+            request.setAttribute(VerifiedClaims.REQUEST_ATTRIBUTE, claims);
         }
-        return username;
+        return claims;
     }
 
-    public Date getExpirationDateFromToken(String token) {
-        Date expiration;
-        try {
-            final Claims claims = getClaimsFromToken(token);
-            expiration = claims.getExpiration();
-        } catch (Exception e) {
-            expiration = null;
+    // Verifica assinatura e expiração; retorna null para token ausente, inválido ou expirado
+    public VerifiedClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        String digest = digest(token);
+        VerifiedClaims claims = verified.getIfPresent(digest);
+        if (claims == null) {
+            Claims body = getClaimsFromToken(token);
+            if (body == null) {
+                return null;
+            }
+            claims = new VerifiedClaims(digest, body);
+            verified.put(digest, claims);
+        }
+        if (claims.isExpired()) {
+            verified.invalidate(digest);
+            return null;
         }
-        return expiration;
+        // Revogação checada também nos acertos do cache (logout vale imediatamente neste nó)
+        if (tokenRevocationService.isRevoked(digest)
+                || tokenRevocationService.isUserRevoked(claims.getUsername(), claims.getCreated())) {
+            return null;
+        }
+        return claims;
+    }
+
+    // Revoga o token (logout) até a sua expiração
+    public void revoke(VerifiedClaims claims) {
+        tokenRevocationService.revoke(claims.getDigest(), claims.getUsername(), claims.getExpiration());
+        verified.invalidate(claims.getDigest());
+    }
+
+    // Revoga todos os tokens já emitidos para o usuário (as claims de perfil e nome deixaram de valer)
+    public void revokeUser(User user) {
+        if (user == null || user.getEmail() == null) {
+            return;
+        }
+        tokenRevocationService.revokeUser(user.getEmail(), new Date(System.currentTimeMillis() + expiration * 1000));
+    }
+
+    public String getUsernameFromToken(String token) {
+        VerifiedClaims claims = verify(token);
+        return claims == null ? null : claims.getUsername();
+    }
+
+    public Date getExpirationDateFromToken(String token) {
+        VerifiedClaims claims = verify(token);
+        return claims == null ? null : claims.getExpiration();
     }
 
     private Claims getClaimsFromToken(String token) {
@@ -62,15 +141,27 @@ public class JwtTokenUtil implements Serializable {
         return claims;
     }
 
-    private Boolean isTokenExpired(String token) {
-        final Date expiration = getExpirationDateFromToken(token);
-        return expiration.before(new Date());
+    public static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
 
         claims.put(CLAIM_KEY_USERNAME, userDetails.getUsername());
+        // id, nome e perfil no token: as requisições autenticadas não precisam buscar o usuário
+        if (userDetails instanceof JwtUser) {
+            JwtUser user = (JwtUser) userDetails;
+            claims.put(CLAIM_KEY_ID, user.getId());
+            claims.put(CLAIM_KEY_NAME, user.getName());
+            claims.put(CLAIM_KEY_PROFILE, user.getProfile() == null ? null : user.getProfile().name());
+        }
 
         final Date createdDate = new Date();
         claims.put(CLAIM_KEY_CREATED, createdDate);
@@ -89,26 +180,23 @@ public class JwtTokenUtil implements Serializable {
     }
 
     public Boolean canTokenBeRefreshed(String token) {
-        return (!isTokenExpired(token));
+        return verify(token) != null;
     }
 
-    public String refreshToken(String token) {
-        String refreshedToken;
-        try {
-            final Claims claims = getClaimsFromToken(token);
-            claims.put(CLAIM_KEY_CREATED, new Date());
-            refreshedToken = doGenerateToken(claims);
-        } catch (Exception e) {
-            refreshedToken = null;
-        }
-        return refreshedToken;
+    // Novo token montado a partir do usuário atual do banco (perfil e nome atualizados, nunca copiados do token antigo)
+    public String refreshToken(User user) {
+        return generateToken(JwtUserFactory.create(user));
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
+        return validateClaims(verify(token), userDetails);
+    }
+
+    public Boolean validateClaims(VerifiedClaims claims, UserDetails userDetails) {
         JwtUser user = (JwtUser) userDetails;
-        final String username = getUsernameFromToken(token);
-        return (
-                username.equals(user.getUsername())
-                        && !isTokenExpired(token));
+        return claims != null
+                && claims.getUsername() != null
+                && claims.getUsername().equals(user.getUsername())
+                && !claims.isExpired();
     }
 }
@@ -5,6 +5,7 @@ import java.util.Collection;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.arcn.helpdesk.api.security.enums.ProfileEnum;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class JwtUser implements UserDetails {
@@ -13,13 +14,18 @@ public class JwtUser implements UserDetails {
 
 	private final String id;
 	private final String username;
+	private final String name;
 	private final String password;
+	private final ProfileEnum profile;
 	private final Collection<? extends GrantedAuthority> authorities;
 
-	public JwtUser(String id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+	public JwtUser(String id, String username, String name, String password, ProfileEnum profile,
+			Collection<? extends GrantedAuthority> authorities) {
 		this.id = id;
 		this.username = username;
+		this.name = name;
 		this.password = password;
+		this.profile = profile;
 		this.authorities = authorities;
 	}
 
@@ -33,6 +39,16 @@ public class JwtUser implements UserDetails {
 		return username;
 	}
 
+	@JsonIgnore
+	public String getName() {
+		return name;
+	}
+
+	@JsonIgnore
+	public ProfileEnum getProfile() {
+		return profile;
+	}
+
 	@JsonIgnore
 	@Override
 	public boolean isAccountNonExpired() {
@@ -8,6 +8,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import com.arcn.helpdesk.api.security.entity.User;
 import com.arcn.helpdesk.api.security.enums.ProfileEnum;
+import com.arcn.helpdesk.api.security.model.CurrentPrincipal;
 
 public class JwtUserFactory {
 	 private JwtUserFactory() {
@@ -17,11 +18,25 @@ public class JwtUserFactory {
 	        return new JwtUser(
 	                user.getId(),
 	                user.getEmail(),
+	                user.getName(),
 	                user.getPassword(),
+	                user.getProfile(),
 	                mapToGrantedAuthorities(user.getProfile())
 	        );
 	    }
 
+	    // Usuário autenticado pelas claims do token (sem senha, sem consulta ao banco)
+	    public static JwtUser create(CurrentPrincipal principal) {
+	        return new JwtUser(
+	                principal.getId(),
+	                principal.getEmail(),
+	                principal.getName(),
+	                null,
+	                principal.getProfile(),
+	                mapToGrantedAuthorities(principal.getProfile())
+	        );
+	    }
+
 	    private static List<GrantedAuthority> mapToGrantedAuthorities(ProfileEnum profileEnum) {
 	    		List<GrantedAuthority> authorities = new ArrayList<GrantedAuthority>(); 
 	    		authorities.add(new SimpleGrantedAuthority(profileEnum.toString())); 
@@ -0,0 +1,68 @@
+package com.arcn.helpdesk.api.security.jwt;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import com.arcn.helpdesk.api.security.enums.ProfileEnum;
+import com.arcn.helpdesk.api.security.model.CurrentPrincipal;
+
+import io.jsonwebtoken.Claims;
+
+// Claims de um token cuja assinatura já foi verificada; criado uma vez por token e reaproveitado na requisição
+public class VerifiedClaims implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	// Atributo da requisição onde o filtro JWT guarda as claims verificadas
+	public static final String REQUEST_ATTRIBUTE = VerifiedClaims.class.getName();
+
+	private final String digest;
+	private final Claims claims;
+
+	public VerifiedClaims(String digest, Claims claims) {
+		this.digest = digest;
+		this.claims = claims;
+	}
+
+	// Resumo SHA-256 do token (chave do cache de tokens verificados)
+	public String getDigest() {
+		return digest;
+	}
+
+	public Claims getClaims() {
+		return claims;
+	}
+
+	public String getUsername() {
+		return claims.getSubject();
+	}
+
+	public Date getExpiration() {
+		return claims.getExpiration();
+	}
+
+	// Usuário das claims; null para tokens emitidos antes de id e perfil fazerem parte do token
+	public CurrentPrincipal getPrincipal() {
+		String id = claims.get(JwtTokenUtil.CLAIM_KEY_ID, String.class);
+		String profile = claims.get(JwtTokenUtil.CLAIM_KEY_PROFILE, String.class);
+		if (id == null || profile == null) {
+			return null;
+		}
+		try {
+			return new CurrentPrincipal(id, getUsername(), claims.get(JwtTokenUtil.CLAIM_KEY_NAME, String.class),
+					ProfileEnum.valueOf(profile));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	// Data de emissão (claim "created"); null em tokens sem a claim
+	public Date getCreated() {
+		return claims.get(JwtTokenUtil.CLAIM_KEY_CREATED, Date.class);
+	}
+
+	public boolean isExpired() {
+		Date expiration = getExpiration();
+		return expiration != null && expiration.before(new Date());
+	}
+}
@@ -0,0 +1,58 @@
+package com.arcn.helpdesk.api.security.model;
+
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.enums.ProfileEnum;
+
+// Usuário autenticado montado a partir das claims do token (sem consulta à coleção de usuários)
+public class CurrentPrincipal {
+
+	private final String id;
+	private final String email;
+	private final String name;
+	private final ProfileEnum profile;
+
+	public CurrentPrincipal(String id, String email, String name, ProfileEnum profile) {
+		this.id = id;
+		this.email = email;
+		this.name = name;
+		this.profile = profile;
+	}
+
+	public static CurrentPrincipal of(User user) {
+		return user == null ? null : new CurrentPrincipal(user.getId(), user.getEmail(), user.getName(), user.getProfile());
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public ProfileEnum getProfile() {
+		return profile;
+	}
+
+	public boolean isCustomer() {
+		return ProfileEnum.ROLE_CUSTOMER.equals(profile);
+	}
+
+	public boolean isTechnician() {
+		return ProfileEnum.ROLE_TECHNICIAN.equals(profile);
+	}
+
+	// Referência ao usuário para @DBRef e cópias do ticket (somente id, nome, e-mail e perfil)
+	public User toUser() {
+		User user = new User();
+		user.setId(id);
+		user.setEmail(email);
+		user.setName(name);
+		user.setProfile(profile);
+		return user;
+	}
+}
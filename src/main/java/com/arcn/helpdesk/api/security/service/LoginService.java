@@ -0,0 +1,73 @@
+package com.arcn.helpdesk.api.security.service;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.jwt.JwtTokenUtil;
+import com.arcn.helpdesk.api.security.jwt.JwtUser;
+import com.arcn.helpdesk.api.security.model.CurrentUser;
+import com.arcn.helpdesk.api.service.UserService;
+
+// Login: autentica (BCrypt), gera o token e recalcula o hash quando o custo configurado mudou
+@Service
+public class LoginService {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private AuthenticationManager authenticationManager;
+
+	@Autowired
+	private JwtTokenUtil jwtTokenUtil;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Value("${auth.bcrypt.strength}")
+	private int bcryptStrength;
+
+	// Executado no loginExecutor; lança AuthenticationException para credenciais inválidas
+	public CurrentUser login(String email, String password) throws AuthenticationException {
+		final Authentication authentication = authenticationManager.authenticate(
+				new UsernamePasswordAuthenticationToken(email, password));
+		final JwtUser jwtUser = (JwtUser) authentication.getPrincipal();
+		rehashIfNeeded(jwtUser, password);
+		final String token = jwtTokenUtil.generateToken(jwtUser);
+		final User user = userService.findByEmail(email);
+		user.setPassword(null);
+		return new CurrentUser(token, user);
+	}
+
+	// A senha em texto só existe no login: é o único momento de trocar o custo sem forçar redefinição
+	private void rehashIfNeeded(JwtUser jwtUser, String password) {
+		int cost = costOf(jwtUser.getPassword());
+		if (cost != bcryptStrength) {
+			userService.updatePassword(jwtUser.getId(), passwordEncoder.encode(password));
+			logger.info("HelpDesk-API | Senha recalculada com custo " + bcryptStrength + " (era " + cost + ")");
+		}
+	}
+
+	// Custo gravado no hash BCrypt ($2a$10$...); -1 quando o formato não é reconhecido
+	static int costOf(String hash) {
+		if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$') {
+			return -1;
+		}
+		try {
+			return Integer.parseInt(hash.substring(4, 6));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
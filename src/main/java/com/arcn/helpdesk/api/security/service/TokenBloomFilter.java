@@ -0,0 +1,62 @@
+package com.arcn.helpdesk.api.security.service;
+
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Filtro de Bloom dos tokens revogados: "não contém" é definitivo, "contém" precisa ser confirmado no banco.
+// Sem lock: a leitura (toda requisição autenticada) só lê palavras do array; a escrita liga bits com CAS
+public class TokenBloomFilter {
+
+	private final AtomicLongArray bits;
+	private final int size;
+	private final int hashes;
+
+	// Dimensiona bits e funções de hash para a quantidade esperada e a taxa de falso positivo
+	public TokenBloomFilter(int expectedInsertions, double falsePositiveRate) {
+		int expected = Math.max(1, expectedInsertions);
+		this.size = (int) Math.max(64, Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2))));
+		this.hashes = Math.max(1, (int) Math.round((double) size / expected * Math.log(2)));
+		this.bits = new AtomicLongArray((size + 63) >>> 6);
+	}
+
+	public void put(String digest) {
+		long[] hash = hash(digest);
+		for (int i = 0; i < hashes; i++) {
+			int index = index(hash, i);
+			long mask = 1L << index;
+			long word;
+			do {
+				word = bits.get(index >>> 6);
+			} while ((word & mask) == 0 && !bits.compareAndSet(index >>> 6, word, word | mask));
+		}
+	}
+
+	public boolean mightContain(String digest) {
+		long[] hash = hash(digest);
+		for (int i = 0; i < hashes; i++) {
+			int index = index(hash, i);
+			if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Hash duplo (h1 + i * h2) sobre o resumo SHA-256, que já é uniformemente distribuído
+	private int index(long[] hash, int i) {
+		return (int) Math.floorMod(hash[0] + i * hash[1], (long) size);
+	}
+
+	private static long[] hash(String digest) {
+		byte[] bytes = Base64.getUrlDecoder().decode(digest);
+		return new long[] { toLong(bytes, 0), toLong(bytes, 8) | 1L };
+	}
+
+	private static long toLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,108 @@
+package com.arcn.helpdesk.api.security.service;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.arcn.helpdesk.api.repository.RevokedTokenRepository;
+import com.arcn.helpdesk.api.security.entity.RevokedToken;
+import com.arcn.helpdesk.api.security.jwt.JwtTokenUtil;
+
+// Revogação de tokens: coleção com TTL no banco e filtro de Bloom em memória na frente dela
+@Service
+public class TokenRevocationService {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Value("${auth.revocation.false-positive-rate}")
+	private double falsePositiveRate;
+
+	// Filtro atual; null até a primeira reconstrução (nesse intervalo toda verificação vai ao banco)
+	private volatile TokenBloomFilter filter;
+
+	// Revogações feitas neste nó desde o início da última reconstrução
+	private volatile Set<String> recent = newRecentSet();
+
+	public void revoke(String digest, String email, Date expiresAt) {
+		RevokedToken revoked = new RevokedToken();
+		revoked.setId(digest);
+		revoked.setEmail(email);
+		revoked.setRevokedAt(new Date());
+		revoked.setExpiresAt(expiresAt);
+		this.revokedTokenRepository.save(revoked);
+		this.recent.add(digest);
+		TokenBloomFilter current = this.filter;
+		if (current != null) {
+			current.put(digest);
+		}
+	}
+
+	// Revoga todos os tokens do usuário emitidos até agora (remoção, troca de perfil, e-mail ou senha);
+	// expiresAt = validade do último token que pode ter sido emitido antes da revogação
+	public void revokeUser(String email, Date expiresAt) {
+		revoke(userKey(email), email, expiresAt);
+	}
+
+	// Token emitido antes da última revogação do usuário; o filtro evita a consulta para quase todos os usuários
+	public boolean isUserRevoked(String email, Date issuedAt) {
+		String key = userKey(email);
+		TokenBloomFilter current = this.filter;
+		if (email == null || (current != null && !current.mightContain(key))) {
+			return false;
+		}
+		RevokedToken revoked = this.revokedTokenRepository.findOne(key);
+		return revoked != null && (issuedAt == null || issuedAt.before(revoked.getRevokedAt()));
+	}
+
+	// Resumo no mesmo formato dos tokens (base64url de SHA-256), exigido pelo filtro de Bloom
+	private static String userKey(String email) {
+		return JwtTokenUtil.digest("user:" + email);
+	}
+
+	// Caso comum (não revogado) custa apenas as sondagens do filtro; só possíveis positivos consultam o banco
+	public boolean isRevoked(String digest) {
+		TokenBloomFilter current = this.filter;
+		if (current != null && !current.mightContain(digest)) {
+			return false;
+		}
+		return this.revokedTokenRepository.exists(digest);
+	}
+
+	// Reconstrói o filtro com os tokens revogados ainda não expirados (inclui revogações de outros nós)
+	public int rebuild() {
+		Set<String> previous = this.recent;
+		this.recent = newRecentSet();
+		Query query = new Query(Criteria.where("expiresAt").gt(new Date()));
+		query.fields().include("id");
+		List<RevokedToken> revoked = this.mongoTemplate.find(query, RevokedToken.class);
+		TokenBloomFilter rebuilt = new TokenBloomFilter(Math.max(1024, revoked.size() * 2), falsePositiveRate);
+		revoked.forEach(token -> rebuilt.put(token.getId()));
+		previous.forEach(rebuilt::put);
+		this.filter = rebuilt;
+		// Revogações feitas durante a consulta, que podem ter ido só para o filtro anterior
+		this.recent.forEach(rebuilt::put);
+		logger.info("HelpDesk-API | revoked token filter rebuilt with " + revoked.size() + " tokens");
+		return revoked.size();
+	}
+
+	private static Set<String> newRecentSet() {
+		return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	}
+}
@@ -0,0 +1,81 @@
+package com.arcn.helpdesk.api.security.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.CacheMetrics;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Cache limitado e com TTL dos usuários por e-mail, usado no filtro JWT e no UserService
+@Component
+public class UserCache {
+
+	private final Cache<String, User> users;
+
+	public UserCache(@Value("${user.cache.ttl}") long ttl, @Value("${user.cache.max-size}") long maxSize) {
+		this.users = Caffeine.newBuilder()
+				.expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.maximumSize(maxSize)
+				.recordStats()
+				.build();
+	}
+
+	// Retorna uma cópia: quem recebe o usuário pode alterá-lo sem afetar o cache
+	public User get(String email, Function<String, User> loader) {
+		if (email == null) {
+			return null;
+		}
+		return copy(this.users.get(email, loader));
+	}
+
+	public void invalidate(User user) {
+		if (user == null) {
+			return;
+		}
+		if (user.getEmail() != null) {
+			this.users.invalidate(user.getEmail());
+		}
+		invalidateId(user.getId());
+	}
+
+	// O e-mail pode ter mudado: remove qualquer entrada com o mesmo id
+	public void invalidateId(String id) {
+		if (id != null) {
+			this.users.asMap().values().removeIf(user -> id.equals(user.getId()));
+		}
+	}
+
+	public CacheMetrics metrics() {
+		CacheStats stats = this.users.stats();
+		CacheMetrics metrics = new CacheMetrics();
+		metrics.setSize(this.users.estimatedSize());
+		metrics.setHits(stats.hitCount());
+		metrics.setMisses(stats.missCount());
+		metrics.setHitRate(stats.hitRate());
+		metrics.setEvictions(stats.evictionCount());
+		return metrics;
+	}
+
+	private static User copy(User user) {
+		if (user == null) {
+			return null;
+		}
+		User copy = new User();
+		copy.setId(user.getId());
+		copy.setEmail(user.getEmail());
+		copy.setName(user.getName());
+		copy.setSign(user.getSign());
+		copy.setGender(user.getGender());
+		copy.setPhoneNumber(user.getPhoneNumber());
+		copy.setBorn(user.getBorn());
+		copy.setPassword(user.getPassword());
+		copy.setProfile(user.getProfile());
+		return copy;
+	}
+}
@@ -0,0 +1,50 @@
+package com.arcn.helpdesk.api.service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.core.io.AbstractResource;
+
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+
+// Resource de um anexo com tamanho conhecido: o Spring MVC atende Range (206) sem ler o conteúdo para medir,
+// e cada leitura abre um stream novo no BlobStore
+public class BlobResource extends AbstractResource {
+
+	private final BlobStore blobStore;
+	private final TicketAttachment attachment;
+
+	public BlobResource(BlobStore blobStore, TicketAttachment attachment) {
+		this.blobStore = blobStore;
+		this.attachment = attachment;
+	}
+
+	public TicketAttachment getAttachment() {
+		return attachment;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		InputStream content = this.blobStore.open(this.attachment.getBlobId(), 0);
+		if (content == null) {
+			throw new FileNotFoundException("Anexo não encontrado: " + this.attachment.getBlobId());
+		}
+		return content;
+	}
+
+	@Override
+	public long contentLength() {
+		return this.attachment.getLength();
+	}
+
+	@Override
+	public String getFilename() {
+		return this.attachment.getFilename();
+	}
+
+	@Override
+	public String getDescription() {
+		return "Ticket attachment [" + this.attachment.getBlobId() + "]";
+	}
+}
@@ -0,0 +1,19 @@
+package com.arcn.helpdesk.api.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+
+// Armazenamento de arquivos em streaming (GridFS ou sistema de arquivos local, conforme blob.store)
+public interface BlobStore {
+
+        // Grava o conteúdo lendo o stream em partes (sem carregar o arquivo em memória) e retorna a referência
+	TicketAttachment store(InputStream content, String filename, String contentType) throws IOException;
+
+        // Abre o conteúdo a partir do byte offset; null quando o blob não existe
+	InputStream open(String blobId, long offset) throws IOException;
+
+        // Remove o blob (sem erro se não existir)
+	void delete(String blobId);
+}
@@ -0,0 +1,16 @@
+package com.arcn.helpdesk.api.service;
+
+import org.springframework.stereotype.Component;
+
+@Component
+public interface SequenceService {
+
+        // Próximo valor da sequência, entregue a partir do bloco reservado em memória
+	long next(String name);
+
+        // Reserva size valores consecutivos no banco e retorna o primeiro deles
+	long reserve(String name, int size);
+
+        // Garante que a sequência continue a partir de value (não diminui o valor atual)
+	void initialize(String name, long value);
+}
@@ -0,0 +1,17 @@
+package com.arcn.helpdesk.api.service;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.SummaryItem;
+import com.arcn.helpdesk.api.security.enums.SummaryGroupEnum;
+
+@Component
+public interface SummaryService {
+
+        // Resumo dos tickets criados entre start (inclusivo) e end (exclusivo), agrupado pela chave informada
+        // (dias e semanas em UTC)
+	List<SummaryItem> summarize(SummaryGroupEnum group, Date start, Date end);
+}
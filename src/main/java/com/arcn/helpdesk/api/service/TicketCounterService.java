@@ -0,0 +1,24 @@
+package com.arcn.helpdesk.api.service;
+
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.Summary;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+
+@Component
+public interface TicketCounterService {
+
+        // Move um ticket de um status para outro (null = ticket novo ou removido)
+	void move(StatusEnum from, StatusEnum to);
+
+        // Soma as quantidades por status em um único $inc (importação em lote)
+	void add(Map<StatusEnum, Long> amounts);
+
+        // Retorna o resumo dos chamados a partir dos contadores
+	Summary summary();
+
+        // Recalcula os contadores a partir da coleção de tickets e retorna a diferença encontrada
+	Map<StatusEnum, Long> reconcile();
+}
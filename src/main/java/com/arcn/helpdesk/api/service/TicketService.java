@@ -1,47 +1,119 @@
 package com.arcn.helpdesk.api.service;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import com.arcn.helpdesk.api.dto.CursorPage;
+import com.arcn.helpdesk.api.dto.ImportReport;
+import com.arcn.helpdesk.api.dto.SliceResult;
+import com.arcn.helpdesk.api.dto.StatusChangeResult;
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.dto.TicketSummary;
 import com.arcn.helpdesk.api.security.entity.ChangeStatus;
 import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
 
 @Component
 public interface TicketService {
         
+        // Próximo número de ticket (sequência sem colisões)
+	Integer nextNumber();
+
         // Criar ou Modificar um ticket 
 	Ticket createOrUpdate(Ticket ticket);
 	
-        // Procurar um ticket pedo ID
+        // Atualização parcial (PATCH): grava somente os campos enviados que mudaram
+	Ticket patch(String id, Map<String, Object> fields, Long expectedVersion);
+	
+        // Importação em massa (NDJSON ou CSV) lida em streaming, com relatório de erros por linha
+	ImportReport importTickets(BufferedReader reader, boolean csv) throws IOException;
+	
+        // Exportação (CSV ou NDJSON) dos tickets do filtro, escrita em streaming, opcionalmente com o histórico
+	void exportTickets(TicketFilter filter, boolean csv, boolean history, OutputStream output) throws IOException;
+	
+        // Procurar um ticket pedo ID (tickets arquivados são lidos do arquivo, somente leitura)
 	Ticket findById(String id);
 	
+        // Ticket com o histórico de status (consultas feitas em paralelo)
+	Ticket findDetail(String id);
+	
         // Deletar um ticket
 	void delete(String id);
 	
-        // Paginação de um ticket, com o indice da pagina e a quantidade de registros 
-	Page<Ticket> listTicket(int page, int count);
+        // Grava o anexo do ticket em streaming no BlobStore (substitui o anexo anterior)
+	Ticket storeAttachment(String id, InputStream content, String filename, String contentType) throws IOException;
+	
+        // Anexo do ticket para download (com suporte a Range); null se o ticket não tem anexo
+	BlobResource openAttachment(String id);
+	
+        // Move as imagens em base64 ainda gravadas nos tickets para o BlobStore
+	long migrateInlineImages();
+	
+        // Miniatura do anexo (gerada em segundo plano); null enquanto não existir
+	BlobResource openThumbnail(String id);
+	
+        // Imagem do anexo reduzida e normalizada (JPEG); null enquanto não existir
+	BlobResource openPreview(String id);
 	
-        // Método para guardar as alterações do Status do ticket
+        // Gera as miniaturas pendentes e retorna a quantidade de tickets processados
+	long processPendingImages();
+	
+        // Paginação de um ticket, com o indice da pagina e a quantidade de registros (listagens devolvem TicketSummary)
+	Page<TicketSummary> listTicket(int page, int count);
+	
+        // Mudança de status atômica (grafo de transições + versão opcional), com registro no histórico
+	Ticket changeStatus(String id, StatusEnum status, User changedBy, Long expectedVersion);
+	
+        // Mudança de status em lote (um bulkWrite e um insertMany), com o resultado de cada ticket
+	List<StatusChangeResult> changeStatus(List<String> ids, StatusEnum status, User changedBy);
+	
+        // Método para guardar as alterações do Status do ticket (gravação assíncrona, em lote)
 	ChangeStatus createChangeStatus(ChangeStatus changeStatus);
 	
         // Retorna uma lista das alterações feitas
 	Iterable<ChangeStatus> listChangeStatus(String ticketId);
 	
         // Retorna os tickets pelo usuario logado (para clientes)
-	Page<Ticket> findByCurrentUser(int page, int count, String userId);
+	Page<TicketSummary> findByCurrentUser(int page, int count, String userId);
 	
         // Procurar pela pagina, o titulo, o status e prioridade
-	Page<Ticket> findByParameters(int page, int count,String title, String status,String priority);
+	Page<TicketSummary> findByParameters(int page, int count,String title, String status,String priority);
 	
         // Procura pela pag, titulo, status e prioridade de um único usuario
-	Page<Ticket> findByParametersAndCurrentUser(int page, int count, String title,String status,String priority,String userId);
+	Page<TicketSummary> findByParametersAndCurrentUser(int page, int count, String title,String status,String priority,String userId);
 	
         // Procurar pelo numero do ticket
-	Page<Ticket> findByNumber(int page, int count,Integer number);
+	Page<TicketSummary> findByNumber(int page, int count,Integer number);
 	
         // Procurar todos os tickets 
 	Iterable<Ticket> findAll();
 	
         // Procurar pelo Usuario designado ao ticket:
-	public Page<Ticket> findByParametersAndAssignedUser(int page, int count,String title,String status,String priority,String assignedUserId);
+	public Page<TicketSummary> findByParametersAndAssignedUser(int page, int count,String title,String status,String priority,String assignedUserId);
+
+        // Busca paginada pelos filtros informados (somente os predicados presentes entram na consulta)
+	Page<TicketSummary> findByFilter(int page, int count, TicketFilter filter);
+
+        // Paginação por cursor: retorna count tickets depois do cursor informado (null = primeira página)
+	CursorPage<TicketSummary> findByCursor(int count, String cursor, TicketFilter filter);
+
+        // Listagem sem count (slice); o total só é calculado quando total = true
+	SliceResult<TicketSummary> findSlice(int page, int count, TicketFilter filter, boolean total);
+
+        // Move para o arquivo os tickets fechados há mais tempo que o configurado (com o histórico)
+	long archiveClosedTickets();
+
+        // Atualiza a cópia do usuário em todos os tickets que o referenciam
+	void propagateUserSnapshot(User user);
+
+        // Preenche as cópias de usuário ausentes e retorna a quantidade de tickets alterados
+	long backfillUserSnapshots();
 }
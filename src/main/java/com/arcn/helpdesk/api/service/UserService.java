@@ -1,8 +1,12 @@
 package com.arcn.helpdesk.api.service;
 
+import java.util.Map;
+
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
+import com.arcn.helpdesk.api.dto.CacheMetrics;
+import com.arcn.helpdesk.api.dto.CursorPage;
 import com.arcn.helpdesk.api.security.entity.User;
 
 @Component
@@ -17,4 +21,16 @@ public interface UserService {
 	void delete(String id);
 	
 	Page<User> findAll(int page, int count);
+
+	// Paginação por cursor: retorna count usuários depois do cursor informado (null = primeira página)
+	CursorPage<User> findByCursor(int count, String cursor);
+
+	// Atualização parcial (PATCH): grava somente os campos enviados que mudaram (password já codificado)
+	User patch(String id, Map<String, Object> fields);
+
+	// Métricas do cache de usuários por e-mail
+	CacheMetrics cacheMetrics();
+
+	// Atualiza o hash da senha de um usuário (rehash com o custo atual do BCrypt)
+	void updatePassword(String id, String encodedPassword);
 }
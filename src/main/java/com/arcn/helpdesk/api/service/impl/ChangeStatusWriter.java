@@ -0,0 +1,404 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BulkWriteError;
+
+// Gravação assíncrona do histórico de status (write-behind): cada registro vai para um journal local
+// (append-only, em segmentos) e para uma fila limitada; uma thread grava a fila em lotes no MongoDB.
+// Os ids são gerados antes da gravação, então o replay do journal na subida não duplica registros.
+@Component
+public class ChangeStatusWriter {
+
+	private static final int DUPLICATE_KEY = 11000;
+	private static final String SEGMENT_PREFIX = "change-status-";
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${history.journal.dir}")
+	private String journalDir;
+
+	@Value("${history.journal.segment-bytes}")
+	private long segmentBytes;
+
+	@Value("${history.journal.fsync}")
+	private boolean fsync;
+
+	@Value("${history.queue-capacity}")
+	private int queueCapacity;
+
+	@Value("${history.batch-size}")
+	private int batchSize;
+
+	@Value("${history.linger-ms}")
+	private long lingerMs;
+
+	@Value("${history.offer-timeout-ms}")
+	private long offerTimeoutMs;
+
+	private BlockingQueue<Pending> queue;
+
+	// Vagas da fila: quem não consegue vaga no tempo limite grava direto no banco (backpressure)
+	private Semaphore capacity;
+
+	// Segmentos do journal ainda com registros não gravados no banco (o último é o segmento atual)
+	private final Deque<Segment> segments = new ArrayDeque<Segment>();
+
+	private long appendedSeq;
+
+	// Último registro da fila já gravado no banco
+	private volatile long flushedSeq;
+
+	private long segmentIndex;
+
+	private volatile boolean running;
+
+	private Thread flusher;
+
+	@PostConstruct
+	public void start() throws IOException {
+		File dir = new File(journalDir);
+		if (!dir.isDirectory() && !dir.mkdirs()) {
+			throw new IOException("Não foi possível criar o diretório do journal: " + dir.getAbsolutePath());
+		}
+		replay(dir);
+		this.queue = new ArrayBlockingQueue<Pending>(queueCapacity);
+		this.capacity = new Semaphore(queueCapacity);
+		synchronized (this.segments) {
+			roll();
+		}
+		this.running = true;
+		this.flusher = new Thread(this::flushLoop, "change-status-writer");
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	// Registra a mudança de status; retorna com o id já definido, antes da gravação no banco
+	public ChangeStatus append(ChangeStatus changeStatus) {
+		appendAll(Arrays.asList(changeStatus));
+		return changeStatus;
+	}
+
+	public void appendAll(List<ChangeStatus> changes) {
+		List<Entry> entries = new ArrayList<Entry>(changes.size());
+		for (ChangeStatus changeStatus : changes) {
+			if (changeStatus.getId() == null) {
+				changeStatus.setId(new ObjectId().toHexString());
+			}
+			entries.add(Entry.of(changeStatus));
+		}
+		boolean queued = false;
+		try {
+			queued = this.running && this.capacity.tryAcquire(entries.size(), offerTimeoutMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (!queued) {
+			// Fila cheia (ou writer parado): grava de forma síncrona, como antes
+			insert(entries);
+			return;
+		}
+		int journaled = 0;
+		try {
+			synchronized (this.segments) {
+				for (Entry entry : entries) {
+					write(entry, this.appendedSeq + 1);
+					this.queue.add(new Pending(++this.appendedSeq, entry));
+					journaled++;
+				}
+				if (this.segments.getLast().bytes >= segmentBytes) {
+					roll();
+				}
+			}
+		} catch (UncheckedIOException e) {
+			// Falha no journal (ex.: disco cheio): o restante é gravado direto no banco
+			logger.error("HelpDesk-API | change status journal write failed: " + e.getMessage());
+			this.capacity.release(entries.size() - journaled);
+			insert(entries.subList(journaled, entries.size()));
+		}
+	}
+
+	private void flushLoop() {
+		List<Pending> batch = new ArrayList<Pending>(batchSize);
+		while (this.running || !this.queue.isEmpty()) {
+			try {
+				Pending first = this.queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// Espera até linger-ms para completar o lote
+				long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs);
+				while (batch.size() < batchSize) {
+					long remaining = deadline - System.nanoTime();
+					Pending next = remaining > 0 ? this.queue.poll(remaining, TimeUnit.NANOSECONDS) : this.queue.poll();
+					if (next == null) {
+						break;
+					}
+					batch.add(next);
+				}
+				flush(batch);
+				batch.clear();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	// Tenta até conseguir: enquanto o banco estiver fora, a fila enche e os chamadores passam a gravar direto
+	private void flush(List<Pending> batch) throws InterruptedException {
+		List<Entry> entries = new ArrayList<Entry>(batch.size());
+		batch.forEach(pending -> entries.add(pending.entry));
+		long backoff = 100;
+		while (true) {
+			try {
+				insert(entries);
+				break;
+			} catch (RuntimeException e) {
+				logger.error("HelpDesk-API | change status batch insert failed, retrying: " + e.getMessage());
+				Thread.sleep(backoff);
+				backoff = Math.min(backoff * 2, 5000);
+			}
+		}
+		this.capacity.release(batch.size());
+		this.flushedSeq = batch.get(batch.size() - 1).seq;
+		release(this.flushedSeq);
+	}
+
+	// Espera a gravação no banco de tudo que foi registrado até agora; false se o tempo acabar antes
+	public boolean awaitFlushed(long timeoutMs) throws InterruptedException {
+		long target;
+		synchronized (this.segments) {
+			target = this.appendedSeq;
+		}
+		long deadline = System.currentTimeMillis() + timeoutMs;
+		while (this.flushedSeq < target) {
+			if (System.currentTimeMillis() >= deadline) {
+				return false;
+			}
+			Thread.sleep(Math.max(1, Math.min(lingerMs, 100)));
+		}
+		return true;
+	}
+
+	// Remove os segmentos cujos registros já estão todos no banco
+	private void release(long flushedSeq) {
+		synchronized (this.segments) {
+			while (this.segments.size() > 1 && this.segments.getFirst().lastSeq <= flushedSeq) {
+				delete(this.segments.removeFirst());
+			}
+			Segment current = this.segments.getLast();
+			if (flushedSeq == this.appendedSeq && current.bytes > 0) {
+				delete(this.segments.removeLast());
+				roll();
+			}
+		}
+	}
+
+	// Insert em lote não ordenado; id duplicado significa registro já gravado (replay ou retentativa)
+	private void insert(List<Entry> entries) {
+		if (entries.isEmpty()) {
+			return;
+		}
+		List<ChangeStatus> changes = new ArrayList<ChangeStatus>(entries.size());
+		entries.forEach(entry -> changes.add(entry.toChangeStatus()));
+		try {
+			this.mongoTemplate.bulkOps(BulkMode.UNORDERED, ChangeStatus.class).insert(changes).execute();
+		} catch (BulkOperationException e) {
+			for (BulkWriteError error : e.getErrors()) {
+				if (error.getCode() != DUPLICATE_KEY) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	// Grava no banco os registros de journals deixados por uma execução anterior
+	private void replay(File dir) throws IOException {
+		File[] files = dir.listFiles((parent, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		if (files == null || files.length == 0) {
+			return;
+		}
+		Arrays.sort(files);
+		long replayed = 0;
+		for (File file : files) {
+			List<Entry> entries = new ArrayList<Entry>(batchSize);
+			try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					try {
+						entries.add(this.objectMapper.readValue(line, Entry.class));
+					} catch (IOException e) {
+						// Última linha incompleta (queda durante a escrita)
+						logger.warn("HelpDesk-API | ignoring corrupt journal line in " + file.getName());
+						continue;
+					}
+					if (entries.size() >= batchSize) {
+						insert(entries);
+						replayed += entries.size();
+						entries.clear();
+					}
+				}
+			}
+			insert(entries);
+			replayed += entries.size();
+			Files.delete(file.toPath());
+			String name = file.getName();
+			this.segmentIndex = Math.max(this.segmentIndex,
+					Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+		}
+		logger.info("HelpDesk-API | replayed " + replayed + " change status entries from journal");
+	}
+
+	private void write(Entry entry, long seq) {
+		Segment segment = this.segments.getLast();
+		try {
+			byte[] line = (this.objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8);
+			ByteBuffer buffer = ByteBuffer.wrap(line);
+			while (buffer.hasRemaining()) {
+				segment.channel.write(buffer);
+			}
+			if (fsync) {
+				segment.channel.force(false);
+			}
+			segment.bytes += line.length;
+			segment.lastSeq = seq;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void roll() {
+		File file = new File(journalDir, String.format("%s%012d%s", SEGMENT_PREFIX, ++this.segmentIndex, SEGMENT_SUFFIX));
+		try {
+			this.segments.addLast(new Segment(file, new FileOutputStream(file, true).getChannel(), this.appendedSeq));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void delete(Segment segment) {
+		try {
+			segment.channel.close();
+			Files.deleteIfExists(segment.file.toPath());
+		} catch (IOException e) {
+			logger.warn("HelpDesk-API | could not delete journal segment " + segment.file.getName() + ": " + e.getMessage());
+		}
+	}
+
+	// Para de aceitar registros e grava o que está na fila; o que falhar fica no journal para o replay
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		this.running = false;
+		if (this.flusher != null) {
+			this.flusher.join(TimeUnit.SECONDS.toMillis(30));
+		}
+	}
+
+	private static final class Segment {
+
+		private final File file;
+		private final FileChannel channel;
+		private long bytes;
+		private long lastSeq;
+
+		private Segment(File file, FileChannel channel, long lastSeq) {
+			this.file = file;
+			this.channel = channel;
+			this.lastSeq = lastSeq;
+		}
+	}
+
+	private static final class Pending {
+
+		private final long seq;
+		private final Entry entry;
+
+		private Pending(long seq, Entry entry) {
+			this.seq = seq;
+			this.entry = entry;
+		}
+	}
+
+	// Linha do journal: somente ids e valores, as referências são refeitas na gravação
+	static final class Entry {
+
+		public String id;
+		public String ticketId;
+		public String userId;
+		public Date date;
+		public StatusEnum status;
+
+		static Entry of(ChangeStatus changeStatus) {
+			Entry entry = new Entry();
+			entry.id = changeStatus.getId();
+			entry.ticketId = changeStatus.getTicket() == null ? null : changeStatus.getTicket().getId();
+			entry.userId = changeStatus.getUserChange() == null ? null : changeStatus.getUserChange().getId();
+			entry.date = changeStatus.getDateChangeStatus();
+			entry.status = changeStatus.getStatus();
+			return entry;
+		}
+
+		ChangeStatus toChangeStatus() {
+			ChangeStatus changeStatus = new ChangeStatus();
+			changeStatus.setId(id);
+			if (ticketId != null) {
+				Ticket ticket = new Ticket();
+				ticket.setId(ticketId);
+				changeStatus.setTicket(ticket);
+			}
+			if (userId != null) {
+				User user = new User();
+				user.setId(userId);
+				changeStatus.setUserChange(user);
+			}
+			changeStatus.setDateChangeStatus(date);
+			changeStatus.setStatus(status);
+			return changeStatus;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Leitura de uma linha CSV (separador vírgula, campos entre aspas com "" para aspas); sem quebras de linha dentro de campos
+final class CsvLine {
+
+	private CsvLine() {
+	}
+
+	static List<String> parse(String line) {
+		List<String> values = new ArrayList<String>();
+		StringBuilder value = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					value.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				values.add(value.toString());
+				value.setLength(0);
+			} else {
+				value.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("aspas não fechadas");
+		}
+		values.add(value.toString());
+		return values;
+	}
+
+	// Associa os valores da linha às colunas do cabeçalho (campos vazios = não informados)
+	static Map<String, String> toMap(List<String> header, String line) {
+		List<String> values = parse(line);
+		if (values.size() != header.size()) {
+			throw new IllegalArgumentException("esperadas " + header.size() + " colunas, encontradas " + values.size());
+		}
+		Map<String, String> row = new LinkedHashMap<String, String>();
+		for (int i = 0; i < header.size(); i++) {
+			if (!values.get(i).isEmpty()) {
+				row.put(header.get(i).trim(), values.get(i));
+			}
+		}
+		return row;
+	}
+}
@@ -0,0 +1,71 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.BeansException;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+// Monta o update parcial de um PATCH: somente os campos enviados e alterados entram no $set/$unset
+final class FieldPatch {
+
+	private FieldPatch() {
+	}
+
+	// Projeção com apenas os campos enviados (o documento atual não é lido inteiro para o diff)
+	static Query project(Query query, Map<String, Object> fields, Set<String> allowed, String... extra) {
+		for (String field : fields.keySet()) {
+			if (!allowed.contains(field)) {
+				throw new IllegalArgumentException("Campo não permitido: " + field);
+			}
+			query.fields().include(field);
+		}
+		for (String field : extra) {
+			query.fields().include(field);
+		}
+		return query;
+	}
+
+	// Compara os valores enviados (convertidos para o tipo do campo) com os atuais; null remove o campo
+	static <T> Update diff(T current, Class<T> type, Map<String, Object> fields, Set<String> allowed,
+			Set<String> required) {
+		BeanWrapper currentValues = new BeanWrapperImpl(current);
+		BeanWrapper submitted = new BeanWrapperImpl(type);
+		Update update = new Update();
+		for (Map.Entry<String, Object> field : fields.entrySet()) {
+			String name = field.getKey();
+			if (!allowed.contains(name)) {
+				throw new IllegalArgumentException("Campo não permitido: " + name);
+			}
+			Object previous = currentValues.getPropertyValue(name);
+			if (field.getValue() == null) {
+				if (required.contains(name)) {
+					throw new IllegalArgumentException("Campo obrigatório: " + name);
+				}
+				if (previous != null) {
+					update.unset(name);
+				}
+				continue;
+			}
+			Object value;
+			try {
+				submitted.setPropertyValue(name, field.getValue());
+				value = submitted.getPropertyValue(name);
+			} catch (BeansException e) {
+				throw new IllegalArgumentException("Valor inválido para " + name + ": " + field.getValue());
+			}
+			if (!Objects.equals(previous, value)) {
+				update.set(name, value);
+			}
+		}
+		return update;
+	}
+
+	static boolean isEmpty(Update update) {
+		return update.getUpdateObject().keySet().isEmpty();
+	}
+}
@@ -0,0 +1,82 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+import com.arcn.helpdesk.api.service.BlobStore;
+
+// BlobStore em diretório local, para instalações com um único nó (blob.store=filesystem)
+@Component
+@ConditionalOnProperty(name = "blob.store", havingValue = "filesystem")
+public class FileSystemBlobStore implements BlobStore {
+
+	private static final Pattern BLOB_ID = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+
+	@Value("${blob.filesystem.dir}")
+	private String dir;
+
+	private Path root;
+
+	@PostConstruct
+	public void init() throws IOException {
+		this.root = Files.createDirectories(Paths.get(dir));
+	}
+
+	// Grava em arquivo temporário e renomeia: um blob parcialmente gravado nunca fica visível
+	public TicketAttachment store(InputStream content, String filename, String contentType) throws IOException {
+		String blobId = UUID.randomUUID().toString();
+		Path temp = this.root.resolve(blobId + ".tmp");
+		long length;
+		try {
+			length = Files.copy(content, temp);
+			Files.move(temp, this.root.resolve(blobId), StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+		TicketAttachment attachment = new TicketAttachment();
+		attachment.setBlobId(blobId);
+		attachment.setFilename(filename);
+		attachment.setContentType(contentType);
+		attachment.setLength(length);
+		return attachment;
+	}
+
+	public InputStream open(String blobId, long offset) throws IOException {
+		if (!BLOB_ID.matcher(blobId).matches()) {
+			return null;
+		}
+		try {
+			FileChannel channel = FileChannel.open(this.root.resolve(blobId), StandardOpenOption.READ);
+			return Channels.newInputStream(channel.position(offset));
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	public void delete(String blobId) {
+		if (BLOB_ID.matcher(blobId).matches()) {
+			try {
+				Files.deleteIfExists(this.root.resolve(blobId));
+			} catch (IOException e) {
+				throw new IllegalStateException("Não foi possível remover o blob " + blobId, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+import com.arcn.helpdesk.api.service.BlobStore;
+import com.mongodb.gridfs.GridFSDBFile;
+import com.mongodb.gridfs.GridFSFile;
+
+// BlobStore no GridFS do próprio MongoDB (padrão): o arquivo é gravado em chunks de 255 KB
+@Component
+@ConditionalOnProperty(name = "blob.store", havingValue = "gridfs", matchIfMissing = true)
+public class GridFsBlobStore implements BlobStore {
+
+	@Autowired
+	private GridFsTemplate gridFsTemplate;
+
+	public TicketAttachment store(InputStream content, String filename, String contentType) throws IOException {
+		GridFSFile file = this.gridFsTemplate.store(content, filename, contentType);
+		TicketAttachment attachment = new TicketAttachment();
+		attachment.setBlobId(file.getId().toString());
+		attachment.setFilename(filename);
+		attachment.setContentType(contentType);
+		attachment.setLength(file.getLength());
+		return attachment;
+	}
+
+	public InputStream open(String blobId, long offset) throws IOException {
+		if (!ObjectId.isValid(blobId)) {
+			return null;
+		}
+		GridFSDBFile file = this.gridFsTemplate.findOne(query(where("_id").is(new ObjectId(blobId))));
+		if (file == null) {
+			return null;
+		}
+		InputStream content = file.getInputStream();
+		// O skip do GridFS posiciona direto no chunk do offset (sem ler os anteriores)
+		long skipped = 0;
+		while (skipped < offset) {
+			long step = content.skip(offset - skipped);
+			if (step <= 0) {
+				break;
+			}
+			skipped += step;
+		}
+		return content;
+	}
+
+	public void delete(String blobId) {
+		if (ObjectId.isValid(blobId)) {
+			this.gridFsTemplate.delete(query(where("_id").is(new ObjectId(blobId))));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.Sequence;
+import com.arcn.helpdesk.api.service.SequenceService;
+
+// Sequências hi/lo: cada nó reserva um bloco de valores com um único $inc atômico
+// e entrega os valores do bloco em memória, sem ir ao banco a cada chamada
+@Component
+public class SequenceServiceImpl implements SequenceService {
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Value("${sequence.block-size}")
+	private int blockSize;
+
+	private final ConcurrentMap<String, Block> blocks = new ConcurrentHashMap<String, Block>();
+
+	public long next(String name) {
+		while (true) {
+			Block block = this.blocks.get(name);
+			if (block != null) {
+				long value = block.next.getAndIncrement();
+				if (value <= block.last) {
+					return value;
+				}
+			}
+			refill(name, block);
+		}
+	}
+
+	public long reserve(String name, int size) {
+		Sequence sequence = this.mongoTemplate.findAndModify(query(where("id").is(name)),
+				new Update().inc("value", size),
+				FindAndModifyOptions.options().returnNew(true).upsert(true),
+				Sequence.class);
+		return sequence.getValue() - size + 1;
+	}
+
+	public void initialize(String name, long value) {
+		this.mongoTemplate.upsert(query(where("id").is(name)), new Update().max("value", value), Sequence.class);
+	}
+
+	// Somente a thread que encontrou o bloco esgotado reserva o próximo
+	private synchronized void refill(String name, Block exhausted) {
+		if (this.blocks.get(name) != exhausted) {
+			return;
+		}
+		long first = reserve(name, this.blockSize);
+		this.blocks.put(name, new Block(first, first + this.blockSize - 1));
+	}
+
+	private static final class Block {
+
+		private final AtomicLong next;
+		private final long last;
+
+		private Block(long first, long last) {
+			this.next = new AtomicLong(first);
+			this.last = last;
+		}
+	}
+}
@@ -0,0 +1,163 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.SummaryItem;
+import com.arcn.helpdesk.api.security.entity.ArchivedTicket;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.enums.SummaryGroupEnum;
+import com.arcn.helpdesk.api.service.SummaryService;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+
+// Resumos calculados no MongoDB com $match/$project/$group (nenhum Ticket é carregado na JVM)
+@Component
+public class SummaryServiceImpl implements SummaryService {
+
+	private static final String NOT_INFORMED = "uninformed";
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	// Soma os tickets da coleção principal e os arquivados (fechados), como os contadores do /ticket/summary
+	public List<SummaryItem> summarize(SummaryGroupEnum group, Date start, Date end) {
+		Map<String, SummaryItem> items = new LinkedHashMap<String, SummaryItem>();
+		aggregate(Ticket.class, keyProjection(group, false), start, end, items);
+		aggregate(ArchivedTicket.class, keyProjection(group, true), start, end, items);
+
+		List<SummaryItem> summary = new ArrayList<SummaryItem>(items.values());
+		if (group == SummaryGroupEnum.Technician || group == SummaryGroupEnum.Customer) {
+			labelUsers(summary);
+		}
+		sort(group, summary);
+		return summary;
+	}
+
+	private void aggregate(Class<?> type, ProjectionOperation keyProjection, Date start, Date end,
+			Map<String, SummaryItem> items) {
+		List<AggregationOperation> operations = new ArrayList<AggregationOperation>();
+		Criteria period = period(start, end);
+		if (period != null) {
+			operations.add(match(period));
+		}
+		operations.add(keyProjection);
+		operations.add(group("key", "status").count().as("total"));
+
+		Iterable<DBObject> results = this.mongoTemplate
+				.aggregate(newAggregation(type, operations), DBObject.class);
+
+		for (DBObject result : results) {
+			DBObject id = (DBObject) result.get("_id");
+			String key = keyOf(id.get("key"));
+			SummaryItem item = items.get(key);
+			if (item == null) {
+				item = new SummaryItem(key);
+				items.put(key, item);
+			}
+			long total = ((Number) result.get("total")).longValue();
+			Object status = id.get("status");
+			item.getAmounts().merge(status == null ? NOT_INFORMED : status.toString(), total, Long::sum);
+			item.setTotal(item.getTotal() + total);
+		}
+	}
+
+	// Filtro pelo período, usa o índice por data do Ticket
+	private Criteria period(Date start, Date end) {
+		if (start == null && end == null) {
+			return null;
+		}
+		Criteria criteria = where("date");
+		if (start != null) {
+			criteria = criteria.gte(start);
+		}
+		if (end != null) {
+			criteria = criteria.lt(end);
+		}
+		return criteria;
+	}
+
+	// Projeta somente a chave do grupo e o status; dia e semana em UTC ($dateToString não aceita fuso no 3.4),
+	// por isso o período recebido também é delimitado em UTC
+	// No arquivo os usuários são guardados somente pelo id (userId/assignedUserId)
+	private ProjectionOperation keyProjection(SummaryGroupEnum group, boolean archived) {
+		switch (group) {
+			case Priority:
+				return project("status").and("priority").as("key").andExclude("_id");
+			case Technician:
+				return project("status").and(archived ? "assignedUserId" : "assignedUser").as("key").andExclude("_id");
+			case Customer:
+				return project("status").and(archived ? "userId" : "user").as("key").andExclude("_id");
+			case Day:
+				return project("status").and("date").dateAsFormattedString("%Y-%m-%d").as("key").andExclude("_id");
+			case Week:
+				// Semana ISO 8601 (segunda a domingo, ano da semana), ex.: 2018-W01; %G/%V exigem MongoDB 3.4+
+				return project("status").and("date").dateAsFormattedString("%G-W%V").as("key").andExclude("_id");
+			default:
+				return project("status").and("status").as("key").andExclude("_id");
+		}
+	}
+
+	private String keyOf(Object key) {
+		if (key == null) {
+			return NOT_INFORMED;
+		}
+		if (key instanceof DBRef) {
+			return ((DBRef) key).getId().toString();
+		}
+		return key.toString();
+	}
+
+	// Busca nome/e-mail de técnicos e clientes com uma única consulta $in
+	private void labelUsers(List<SummaryItem> summary) {
+		List<String> ids = new ArrayList<String>();
+		for (SummaryItem item : summary) {
+			if (!NOT_INFORMED.equals(item.getKey())) {
+				ids.add(item.getKey());
+			}
+		}
+		if (ids.isEmpty()) {
+			return;
+		}
+		Query query = query(where("id").in(ids));
+		query.fields().include("name").include("email");
+		Map<String, String> labels = new LinkedHashMap<String, String>();
+		for (User user : this.mongoTemplate.find(query, User.class)) {
+			labels.put(user.getId(), user.getName() != null ? user.getName() : user.getEmail());
+		}
+		for (SummaryItem item : summary) {
+			if (labels.containsKey(item.getKey())) {
+				item.setLabel(labels.get(item.getKey()));
+			}
+		}
+	}
+
+	// Períodos em ordem cronológica, demais agrupamentos pelo total
+	private void sort(SummaryGroupEnum group, List<SummaryItem> summary) {
+		if (group.isTimeBucket()) {
+			Collections.sort(summary, (a, b) -> a.getKey().compareTo(b.getKey()));
+		} else {
+			Collections.sort(summary, (a, b) -> b.getTotal().compareTo(a.getTotal()));
+		}
+	}
+}
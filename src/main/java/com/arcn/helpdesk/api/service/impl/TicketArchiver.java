@@ -0,0 +1,324 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.dto.TicketSummary;
+import com.arcn.helpdesk.api.repository.ArchivedTicketRepository;
+import com.arcn.helpdesk.api.security.entity.ArchivedTicket;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.DBCollection;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+import com.mongodb.DefaultDBDecoder;
+import com.mongodb.DefaultDBEncoder;
+
+// Move tickets fechados há mais de N dias (com o histórico) para a coleção de arquivo e os lê de volta sob demanda
+@Component
+public class TicketArchiver {
+
+	private static final int DUPLICATE_KEY = 11000;
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ArchivedTicketRepository archivedTicketRepository;
+
+	@Autowired
+	private UserReferenceResolver userReferenceResolver;
+
+	@Autowired
+	private ChangeStatusWriter changeStatusWriter;
+
+	@Autowired
+	private TicketMigrations ticketMigrations;
+
+	@Value("${ticket.archive.after-days}")
+	private int afterDays;
+
+	@Value("${ticket.archive.batch-size}")
+	private int batchSize;
+
+	@Value("${ticket.archive.flush-timeout-ms}")
+	private long flushTimeoutMs;
+
+	// Arquiva em lotes e retorna a quantidade de tickets movidos
+	public long archive() {
+		Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(this.afterDays));
+		// A data de abertura é anterior ao fechamento: filtra pelo índice (status, date) e confere o histórico no lote
+		DBObject closed = new BasicDBObject("status", StatusEnum.Closed.name())
+				.append("date", new BasicDBObject("$lt", cutoff));
+		long archived = 0;
+		List<DBObject> batch = new ArrayList<DBObject>(this.batchSize);
+		DBCursor cursor = collection(Ticket.class).find(closed);
+		try {
+			while (cursor.hasNext()) {
+				batch.add(cursor.next());
+				if (batch.size() >= this.batchSize) {
+					archived += archiveBatch(batch, cutoff);
+					batch.clear();
+				}
+			}
+		} finally {
+			cursor.close();
+		}
+		return archived + archiveBatch(batch, cutoff);
+	}
+
+	// Grava o arquivo antes de remover o ticket: uma queda no meio deixa no máximo uma cópia duplicada, nunca perda
+	private long archiveBatch(List<DBObject> tickets, Date cutoff) {
+		if (tickets.isEmpty()) {
+			return 0;
+		}
+		// Histórico ainda na fila/journal do write-behind ficaria fora da cópia e órfão depois da remoção
+		if (!awaitHistory()) {
+			logger.warn("HelpDesk-API | change status writer not drained, skipping archive batch");
+			return 0;
+		}
+		Map<Object, BasicDBList> history = history(tickets);
+		Date now = new Date();
+		List<ArchivedTicket> archives = new ArrayList<ArchivedTicket>();
+		List<DBObject> eligible = new ArrayList<DBObject>();
+		for (DBObject ticket : tickets) {
+			BasicDBList changes = history.getOrDefault(ticket.get("_id"), new BasicDBList());
+			if (!changes.isEmpty()
+					&& ((Date) ((DBObject) changes.get(changes.size() - 1)).get("dateChangeStatus")).after(cutoff)) {
+				// Fechado recentemente (aberto há muito tempo): fica para uma próxima execução
+				continue;
+			}
+			ArchivedTicket archive = new ArchivedTicket();
+			archive.setId(ticket.get("_id").toString());
+			archive.setNumber((Integer) ticket.get("number"));
+			archive.setDate((Date) ticket.get("date"));
+			archive.setArchivedAt(now);
+			summaryFields(ticket, archive);
+			archive.setData(compress(new BasicDBObject("ticket", ticket).append("history", changes)));
+			archives.add(archive);
+			eligible.add(ticket);
+		}
+		if (archives.isEmpty()) {
+			return 0;
+		}
+		try {
+			this.mongoTemplate.bulkOps(BulkMode.UNORDERED, ArchivedTicket.class).insert(archives).execute();
+		} catch (BulkOperationException e) {
+			Set<DBObject> rejected = new HashSet<DBObject>();
+			for (BulkWriteError error : e.getErrors()) {
+				if (error.getCode() != DUPLICATE_KEY) {
+					throw e;
+				}
+				// Cópia deixada por uma execução interrompida pode ser anterior a alterações do ticket:
+				// é substituída pela lida agora; outra colisão (número) não
+				ArchivedTicket archive = archives.get(error.getIndex());
+				if (this.archivedTicketRepository.exists(archive.getId())) {
+					this.archivedTicketRepository.save(archive);
+				} else {
+					logger.error("HelpDesk-API | could not archive ticket " + archive.getId() + ": " + error.getMessage());
+					rejected.add(eligible.get(error.getIndex()));
+				}
+			}
+			eligible.removeAll(rejected);
+		}
+
+		// Remove somente a versão arquivada, um a um para saber quais foram de fato removidos: ticket alterado
+		// (continua na coleção principal) ou excluído nesse meio tempo perde a cópia do arquivo
+		List<Object> moved = new ArrayList<Object>();
+		for (DBObject ticket : eligible) {
+			Object id = ticket.get("_id");
+			if (this.mongoTemplate.remove(query(where("id").is(id).and("version").is(ticket.get("version"))),
+					Ticket.class).getN() > 0) {
+				moved.add(id);
+			} else {
+				this.archivedTicketRepository.delete(id.toString());
+			}
+		}
+		if (!moved.isEmpty()) {
+			this.mongoTemplate.remove(query(where("ticket.$id").in(moved)), ChangeStatus.class);
+		}
+		return moved.size();
+	}
+
+	private boolean awaitHistory() {
+		try {
+			return this.changeStatusWriter.awaitFlushed(this.flushTimeoutMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	// Histórico do lote em uma consulta, em ordem cronológica
+	private Map<Object, BasicDBList> history(List<DBObject> tickets) {
+		List<Object> ids = new ArrayList<Object>();
+		for (DBObject ticket : tickets) {
+			ids.add(ticket.get("_id"));
+		}
+		Map<Object, BasicDBList> history = new HashMap<Object, BasicDBList>();
+		DBCursor cursor = collection(ChangeStatus.class)
+				.find(new BasicDBObject("ticket.$id", new BasicDBObject("$in", ids)))
+				.sort(new BasicDBObject("dateChangeStatus", 1));
+		try {
+			while (cursor.hasNext()) {
+				DBObject change = cursor.next();
+				history.computeIfAbsent(((DBRef) change.get("ticket")).getId(), id -> new BasicDBList()).add(change);
+			}
+		} finally {
+			cursor.close();
+		}
+		return history;
+	}
+
+	// Ticket arquivado com o histórico (mais recente primeiro, como no detalhe); null se não está no arquivo
+	public Ticket findById(String id) {
+		ArchivedTicket archive = this.archivedTicketRepository.findOne(id);
+		return archive == null ? null : restore(archive);
+	}
+
+	// Busca por número no arquivo, respeitando o dono/responsável do filtro
+	public TicketSummary findSummary(TicketFilter filter) {
+		if (filter.getNumber() == null) {
+			return null;
+		}
+		ArchivedTicket archive = this.archivedTicketRepository.findByNumber(filter.getNumber());
+		if (archive == null) {
+			return null;
+		}
+		DBObject ticket = (DBObject) decompress(archive.getData()).get("ticket");
+		if (!references(ticket.get("user"), filter.getUserId())
+				|| !references(ticket.get("assignedUser"), filter.getAssignedUserId())
+				|| (filter.getStatuses() != null && !filter.getStatuses().contains(StatusEnum.Closed))) {
+			return null;
+		}
+		return this.mongoTemplate.getConverter().read(TicketSummary.class, ticket);
+	}
+
+	// Remove do arquivo e retorna o ticket removido (para apagar anexos e contadores)
+	public Ticket delete(String id) {
+		Ticket ticket = findById(id);
+		if (ticket != null) {
+			this.archivedTicketRepository.delete(id);
+		}
+		return ticket;
+	}
+
+	public long count() {
+		return this.archivedTicketRepository.count();
+	}
+
+	private Ticket restore(ArchivedTicket archive) {
+		DBObject content = decompress(archive.getData());
+		Ticket ticket = this.mongoTemplate.getConverter().read(Ticket.class, (DBObject) content.get("ticket"));
+		List<ChangeStatus> changes = new ArrayList<ChangeStatus>();
+		for (Object change : (BasicDBList) content.get("history")) {
+			// Sem o DBRef de volta para o ticket (evita resolver a referência para a coleção principal)
+			((DBObject) change).removeField("ticket");
+			changes.add(this.mongoTemplate.getConverter().read(ChangeStatus.class, (DBObject) change));
+		}
+		changes.sort(Comparator.comparing(ChangeStatus::getDateChangeStatus,
+				Comparator.nullsLast(Comparator.reverseOrder())));
+		ticket.setChanges(this.userReferenceResolver.resolveChanges(changes));
+		ticket.setArchived(true);
+		return ticket;
+	}
+
+	// Copia do documento do ticket os campos usados pelos resumos agrupados
+	static void summaryFields(DBObject ticket, ArchivedTicket archive) {
+		Object status = ticket.get("status");
+		Object priority = ticket.get("priority");
+		archive.setStatus(status == null ? null : StatusEnum.valueOf(status.toString()));
+		archive.setPriority(priority == null ? null : PriorityEnum.valueOf(priority.toString()));
+		archive.setUserId(referenceId(ticket.get("user")));
+		archive.setAssignedUserId(referenceId(ticket.get("assignedUser")));
+	}
+
+	private static String referenceId(Object reference) {
+		return reference instanceof DBRef ? String.valueOf(((DBRef) reference).getId()) : null;
+	}
+
+	// Arquivos gravados antes dos campos de resumo
+	@PostConstruct
+	public void initializeSummaryFields() {
+		this.ticketMigrations.fillArchivedSummaryFields();
+	}
+
+	private static boolean references(Object reference, String userId) {
+		return userId == null || (reference instanceof DBRef && userId.equals(String.valueOf(((DBRef) reference).getId())));
+	}
+
+	private DBCollection collection(Class<?> entityClass) {
+		return this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(entityClass));
+	}
+
+	static byte[] compress(DBObject content) {
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try {
+			deflater.setInput(new DefaultDBEncoder().encode(content));
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			while (!deflater.finished()) {
+				output.write(buffer, 0, deflater.deflate(buffer));
+			}
+			return output.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	static DBObject decompress(byte[] data) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 4);
+			byte[] buffer = new byte[8192];
+			while (!inflater.finished()) {
+				int length = inflater.inflate(buffer);
+				if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new IllegalStateException("Arquivo de ticket corrompido");
+				}
+				output.write(buffer, 0, length);
+			}
+			return new DefaultDBDecoder().decode(output.toByteArray(), (DBCollection) null);
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("Arquivo de ticket corrompido", e);
+		} finally {
+			inflater.end();
+		}
+	}
+}
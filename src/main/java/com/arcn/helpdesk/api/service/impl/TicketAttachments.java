@@ -0,0 +1,179 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+import com.arcn.helpdesk.api.service.BlobResource;
+import com.arcn.helpdesk.api.service.BlobStore;
+
+// Anexos dos tickets no BlobStore: o documento do ticket guarda somente a referência (TicketAttachment)
+@Component
+public class TicketAttachments {
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private BlobStore blobStore;
+
+	@Autowired
+	private TicketImageProcessor ticketImageProcessor;
+
+	// Grava o anexo em streaming e troca a referência do ticket; o blob anterior é removido
+	public Ticket store(String id, InputStream content, String filename, String contentType) throws IOException {
+		TicketAttachment attachment = this.blobStore.store(content, filename,
+				TicketAttachment.safeContentType(contentType));
+		Ticket previous = this.mongoTemplate.findAndModify(query(where("id").is(id)),
+				new Update().set("attachment", attachment).unset("image").inc("version", 1),
+				FindAndModifyOptions.options().returnNew(false), Ticket.class);
+		if (previous == null) {
+			this.blobStore.delete(attachment.getBlobId());
+			throw new IllegalArgumentException("Ticket não encontrado: " + id);
+		}
+		delete(previous.getAttachment());
+		this.ticketImageProcessor.submit(id, attachment);
+		// Aplica em memória o mesmo update sobre o documento anterior
+		previous.setAttachment(attachment);
+		previous.setImage(null);
+		previous.setVersion(previous.getVersion() == null ? 1L : previous.getVersion() + 1);
+		return previous;
+	}
+
+	public BlobResource open(String id) {
+		TicketAttachment attachment = attachmentOf(id);
+		return attachment == null ? null : new BlobResource(this.blobStore, attachment);
+	}
+
+	// Miniatura ou imagem normalizada; null enquanto o processamento não terminou
+	public BlobResource openDerived(String id, boolean thumbnail) {
+		TicketAttachment attachment = attachmentOf(id);
+		TicketAttachment derived = attachment == null ? null
+				: thumbnail ? attachment.getThumbnail() : attachment.getPreview();
+		return derived == null ? null : new BlobResource(this.blobStore, derived);
+	}
+
+	// Agenda a geração das imagens derivadas de um anexo recém gravado
+	public void process(Ticket ticket) {
+		this.ticketImageProcessor.submit(ticket.getId(), ticket.getAttachment());
+	}
+
+	private TicketAttachment attachmentOf(String id) {
+		Query query = query(where("id").is(id));
+		query.fields().include("attachment");
+		Ticket ticket = this.mongoTemplate.findOne(query, Ticket.class);
+		return ticket == null ? null : ticket.getAttachment();
+	}
+
+	// Imagem enviada em base64 no JSON do ticket: vai para o BlobStore antes de gravar o documento
+	public void offloadInlineImage(Ticket ticket) {
+		if (ticket.getImage() == null || ticket.getImage().isEmpty()) {
+			return;
+		}
+		ticket.setAttachment(storeInline(ticket.getImage(), "image-" + ticket.getNumber()));
+		ticket.setImage(null);
+	}
+
+	// Grava no BlobStore uma imagem em base64 (PATCH e importação) e retorna a referência do anexo
+	public TicketAttachment storeInline(String image, String filename) {
+		try {
+			return storeInlineContent(image, filename);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// Remove o anexo e as imagens derivadas dele
+	public void delete(TicketAttachment attachment) {
+		if (attachment == null) {
+			return;
+		}
+		this.blobStore.delete(attachment.getBlobId());
+		if (attachment.getThumbnail() != null) {
+			this.blobStore.delete(attachment.getThumbnail().getBlobId());
+		}
+		if (attachment.getPreview() != null) {
+			this.blobStore.delete(attachment.getPreview().getBlobId());
+		}
+	}
+
+	// Gera as imagens derivadas que ficaram pendentes (fila cheia, queda ou anexos migrados)
+	public long processPendingImages() {
+		return this.ticketImageProcessor.processPending();
+	}
+
+	// Move para o BlobStore as imagens ainda gravadas dentro dos tickets (um ticket por vez)
+	public long migrateInlineImages() {
+		Query pending = query(where("image").exists(true).ne(null));
+		pending.fields().include("id");
+		long migrated = 0;
+		try (CloseableIterator<Ticket> ids = this.mongoTemplate.stream(pending, Ticket.class)) {
+			while (ids.hasNext()) {
+				String id = ids.next().getId();
+				try {
+					if (migrateInlineImage(id)) {
+						migrated++;
+					}
+				} catch (RuntimeException | IOException e) {
+					logger.error("HelpDesk-API | could not migrate image of ticket " + id + ": " + e.getMessage());
+				}
+			}
+		}
+		return migrated;
+	}
+
+	private boolean migrateInlineImage(String id) throws IOException {
+		Query query = query(where("id").is(id));
+		query.fields().include("image").include("number").include("attachment").include("version");
+		Ticket ticket = this.mongoTemplate.findOne(query, Ticket.class);
+		if (ticket == null || ticket.getImage() == null) {
+			return false;
+		}
+		TicketAttachment attachment = storeInlineContent(ticket.getImage(), "image-" + ticket.getNumber());
+		// Condicionado à versão lida: se o ticket mudou durante a migração, o blob novo é descartado
+		boolean updated = this.mongoTemplate.updateFirst(query(where("id").is(id).and("version").is(ticket.getVersion())),
+				new Update().set("attachment", attachment).unset("image").inc("version", 1), Ticket.class).getN() > 0;
+		if (updated) {
+			delete(ticket.getAttachment());
+			this.ticketImageProcessor.submit(id, attachment);
+		} else {
+			this.blobStore.delete(attachment.getBlobId());
+		}
+		return updated;
+	}
+
+	// Aceita data URL (data:image/png;base64,...) ou base64 puro
+	private TicketAttachment storeInlineContent(String image, String filename) throws IOException {
+		String contentType = TicketAttachment.DEFAULT_CONTENT_TYPE;
+		String payload = image;
+		if (image.startsWith("data:") && image.contains(",")) {
+			String header = image.substring(5, image.indexOf(','));
+			payload = image.substring(image.indexOf(',') + 1);
+			contentType = TicketAttachment.safeContentType(header);
+		}
+		try (InputStream content = Base64.getMimeDecoder()
+				.wrap(new ByteArrayInputStream(payload.getBytes(StandardCharsets.US_ASCII)))) {
+			return this.blobStore.store(content, filename, contentType);
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.repository.TicketRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Cache de curta duração com o total de tickets por filtro, calculado de forma assíncrona
+@Component
+public class TicketCountCache {
+
+	private final AsyncLoadingCache<TicketFilter, Long> totals;
+
+	@Autowired
+	public TicketCountCache(TicketRepository ticketRepository,
+			@Qualifier("countExecutor") ThreadPoolTaskExecutor countExecutor,
+			@Value("${ticket.count.cache-ttl}") long ttl,
+			@Value("${ticket.count.cache-size}") long size) {
+		this.totals = Caffeine.newBuilder()
+				.expireAfterWrite(ttl, TimeUnit.SECONDS)
+				.maximumSize(size)
+				.executor(countExecutor)
+				.buildAsync(filter -> ticketRepository.count(filter));
+	}
+
+	// Requisições simultâneas com o mesmo filtro compartilham a mesma contagem
+	public CompletableFuture<Long> count(TicketFilter filter) {
+		return this.totals.get(filter);
+	}
+}
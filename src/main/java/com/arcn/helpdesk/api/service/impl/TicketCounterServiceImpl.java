@@ -0,0 +1,154 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.Summary;
+import com.arcn.helpdesk.api.security.entity.ArchivedTicket;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.TicketCounter;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.arcn.helpdesk.api.service.TicketCounterService;
+import com.mongodb.DBObject;
+
+// Contadores de tickets por status, atualizados com $inc atômico
+@Component
+public class TicketCounterServiceImpl implements TicketCounterService {
+
+	private static final int MAX_ATTEMPTS = 5;
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	public void move(StatusEnum from, StatusEnum to) {
+		if (from == to) {
+			return;
+		}
+		Update update = new Update();
+		if (from != null) {
+			update.inc(amountField(from), -1L);
+		}
+		if (to != null) {
+			update.inc(amountField(to), 1L);
+		}
+		update.inc("version", 1L);
+		this.mongoTemplate.upsert(query(where("id").is(TicketCounter.STATUS)), update, TicketCounter.class);
+	}
+
+	public void add(Map<StatusEnum, Long> amounts) {
+		if (amounts.isEmpty()) {
+			return;
+		}
+		Update update = new Update();
+		amounts.forEach((status, amount) -> update.inc(amountField(status), amount));
+		update.inc("version", 1L);
+		this.mongoTemplate.upsert(query(where("id").is(TicketCounter.STATUS)), update, TicketCounter.class);
+	}
+
+	public Summary summary() {
+		TicketCounter counter = this.mongoTemplate.findById(TicketCounter.STATUS, TicketCounter.class);
+		if (counter == null) {
+			// Primeira leitura: os contadores ainda não existem, monta a partir dos tickets
+			reconcile();
+			counter = this.mongoTemplate.findById(TicketCounter.STATUS, TicketCounter.class);
+		}
+		Map<String, Long> amounts = counter.getAmounts();
+		Summary chart = new Summary();
+		chart.setAmountNew(amount(amounts, StatusEnum.New));
+		chart.setAmountResolved(amount(amounts, StatusEnum.Resolved));
+		chart.setAmountApproved(amount(amounts, StatusEnum.Approved));
+		chart.setAmountDisapproved(amount(amounts, StatusEnum.Disapproved));
+		chart.setAmountAssigned(amount(amounts, StatusEnum.Assigned));
+		chart.setAmountClosed(amount(amounts, StatusEnum.Closed));
+		return chart;
+	}
+
+	// Lê o contador antes de contar e grava os totais condicionado à versão lida: um $inc entre a leitura
+	// e a gravação muda a versão e a reconciliação recomeça (contagem e leitura de um mesmo instante)
+	public Map<StatusEnum, Long> reconcile() {
+		for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+			TicketCounter counter = this.mongoTemplate.findById(TicketCounter.STATUS, TicketCounter.class);
+			Map<String, Long> actual = countByStatus();
+			if (counter == null) {
+				// Primeira execução: insert simples; outro nó (ou um $inc) criou o documento antes = recomeça
+				TicketCounter seed = new TicketCounter();
+				seed.setId(TicketCounter.STATUS);
+				seed.setAmounts(actual);
+				seed.setVersion(0L);
+				try {
+					this.mongoTemplate.insert(seed);
+					return new EnumMap<StatusEnum, Long>(StatusEnum.class);
+				} catch (DuplicateKeyException e) {
+					continue;
+				}
+			}
+			Map<StatusEnum, Long> drift = new EnumMap<StatusEnum, Long>(StatusEnum.class);
+			for (StatusEnum status : StatusEnum.values()) {
+				long difference = valueOf(counter.getAmounts().get(status.name())) - valueOf(actual.get(status.name()));
+				if (difference != 0) {
+					drift.put(status, difference);
+				}
+			}
+			if (drift.isEmpty()) {
+				return drift;
+			}
+			TicketCounter updated = this.mongoTemplate.findAndModify(
+					query(where("id").is(TicketCounter.STATUS).and("version").is(counter.getVersion())),
+					new Update().set("amounts", actual).inc("version", 1L), TicketCounter.class);
+			if (updated != null) {
+				return drift;
+			}
+		}
+		logger.warn("HelpDesk-API | ticket counters changed during " + MAX_ATTEMPTS + " reconcile attempts, left for the next run");
+		return new EnumMap<StatusEnum, Long>(StatusEnum.class);
+	}
+
+	// Contagem feita no servidor com $group, sem carregar os tickets na JVM
+	private Map<String, Long> countByStatus() {
+		AggregationResults<DBObject> results = this.mongoTemplate.aggregate(
+				newAggregation(Ticket.class, group("status").count().as("total")), DBObject.class);
+		Map<String, Long> amounts = new HashMap<String, Long>();
+		for (StatusEnum status : StatusEnum.values()) {
+			amounts.put(status.name(), 0L);
+		}
+		for (DBObject result : results) {
+			Object status = result.get("_id");
+			if (status != null) {
+				amounts.put(status.toString(), ((Number) result.get("total")).longValue());
+			}
+		}
+		// Tickets arquivados continuam contando como fechados
+		amounts.merge(StatusEnum.Closed.name(), this.mongoTemplate.count(new Query(), ArchivedTicket.class), Long::sum);
+		return amounts;
+	}
+
+	private static String amountField(StatusEnum status) {
+		return "amounts." + status.name();
+	}
+
+	private static Integer amount(Map<String, Long> amounts, StatusEnum status) {
+		return (int) valueOf(amounts.get(status.name()));
+	}
+
+	private static long valueOf(Long value) {
+		return value == null ? 0L : value;
+	}
+}
@@ -0,0 +1,61 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.repository.ChangeStatusRepository;
+import com.arcn.helpdesk.api.repository.TicketRepository;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+
+// Monta o detalhe do ticket buscando o ticket e o histórico (com os usuários) em paralelo:
+// a latência fica próxima da consulta mais lenta e não da soma das consultas
+@Component
+public class TicketDetailAssembler {
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private ChangeStatusRepository changeStatusRepository;
+
+	@Autowired
+	private UserReferenceResolver userReferenceResolver;
+
+	@Autowired
+	@Qualifier("detailExecutor")
+	private ThreadPoolTaskExecutor detailExecutor;
+
+	public Ticket assemble(String id) {
+		CompletableFuture<Ticket> ticket = CompletableFuture
+				.supplyAsync(() -> this.ticketRepository.findOne(id), this.detailExecutor);
+		CompletableFuture<List<ChangeStatus>> history = CompletableFuture
+				.supplyAsync(() -> history(id), this.detailExecutor)
+				.thenApply(this.userReferenceResolver::resolveChanges);
+
+		Ticket detail = ticket.join();
+		if (detail == null) {
+			history.cancel(false);
+			return null;
+		}
+		detail.setChanges(history.join());
+		return detail;
+	}
+
+	public List<ChangeStatus> history(String ticketId) {
+		if (!ObjectId.isValid(ticketId)) {
+			return new ArrayList<ChangeStatus>();
+		}
+		return this.changeStatusRepository.findHistoryByTicketId(new ObjectId(ticketId),
+				new Sort(Direction.DESC, "dateChangeStatus"));
+	}
+}
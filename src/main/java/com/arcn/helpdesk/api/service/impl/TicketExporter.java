@@ -0,0 +1,226 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.repository.TicketRepository;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.entity.UserSnapshot;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+import com.mongodb.DBRef;
+
+// Exportação dos tickets (CSV ou NDJSON) lida de um cursor e escrita direto na saída, em memória constante
+@Component
+public class TicketExporter {
+
+	private static final List<String> COLUMNS = Arrays.asList("number", "title", "status", "priority", "date",
+			"user", "assignedUser", "description");
+
+	@Autowired
+	private TicketRepository ticketRepository;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private UserReferenceResolver userReferenceResolver;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	// Tickets por consulta de histórico (um $in por lote)
+	@Value("${ticket.export.batch-size}")
+	private int batchSize;
+
+	public void export(TicketFilter filter, boolean csv, boolean history, OutputStream output) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+		JsonGenerator json = csv ? null : this.objectMapper.getFactory().createGenerator(writer);
+		if (json != null) {
+			json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			json.setRootValueSeparator(null);
+		}
+		if (csv) {
+			List<String> header = new ArrayList<String>(COLUMNS);
+			if (history) {
+				header.add("history");
+			}
+			writeCsv(writer, header);
+		}
+		List<Ticket> batch = new ArrayList<Ticket>(history ? this.batchSize : 1);
+		try (CloseableIterator<Ticket> tickets = this.ticketRepository.stream(filter)) {
+			while (tickets.hasNext()) {
+				batch.add(tickets.next());
+				if (!history || batch.size() >= this.batchSize) {
+					writeBatch(batch, history, writer, json);
+				}
+			}
+		}
+		writeBatch(batch, history, writer, json);
+		if (json != null) {
+			json.flush();
+		}
+		writer.flush();
+	}
+
+	private void writeBatch(List<Ticket> batch, boolean history, Writer writer, JsonGenerator json) throws IOException {
+		if (batch.isEmpty()) {
+			return;
+		}
+		Map<String, List<ChangeStatus>> changes = history ? history(batch)
+				: Collections.<String, List<ChangeStatus>>emptyMap();
+		for (Ticket ticket : batch) {
+			List<ChangeStatus> ticketChanges = history ? changes.getOrDefault(ticket.getId(),
+					Collections.<ChangeStatus>emptyList()) : null;
+			if (json != null) {
+				Map<String, Object> row = row(ticket);
+				if (ticketChanges != null) {
+					row.put("history", historyRows(ticketChanges));
+				}
+				json.writeObject(row);
+				json.writeRaw('\n');
+			} else {
+				List<String> values = new ArrayList<String>();
+				for (Object value : row(ticket).values()) {
+					values.add(value == null ? "" : String.valueOf(value));
+				}
+				if (ticketChanges != null) {
+					values.add(historyText(ticketChanges));
+				}
+				writeCsv(writer, values);
+			}
+		}
+		batch.clear();
+	}
+
+	private static Map<String, Object> row(Ticket ticket) {
+		Map<String, Object> row = new LinkedHashMap<String, Object>();
+		row.put("number", ticket.getNumber());
+		row.put("title", ticket.getTitle());
+		row.put("status", ticket.getStatus());
+		row.put("priority", ticket.getPriority());
+		row.put("date", format(ticket.getDate()));
+		row.put("user", email(ticket.getUserSnapshot()));
+		row.put("assignedUser", email(ticket.getAssignedUserSnapshot()));
+		row.put("description", ticket.getDescription());
+		return row;
+	}
+
+	// Histórico do lote em uma consulta, lido como DBObject para não resolver o DBRef de volta ao ticket
+	private Map<String, List<ChangeStatus>> history(List<Ticket> batch) {
+		List<ObjectId> ids = new ArrayList<ObjectId>();
+		for (Ticket ticket : batch) {
+			if (ObjectId.isValid(ticket.getId())) {
+				ids.add(new ObjectId(ticket.getId()));
+			}
+		}
+		List<ChangeStatus> found = new ArrayList<ChangeStatus>();
+		List<String> ticketIds = new ArrayList<String>();
+		DBCursor cursor = this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(ChangeStatus.class))
+				.find(new BasicDBObject("ticket.$id", new BasicDBObject("$in", ids)))
+				.sort(new BasicDBObject("dateChangeStatus", 1));
+		try {
+			while (cursor.hasNext()) {
+				DBObject document = cursor.next();
+				DBRef ticket = (DBRef) document.removeField("ticket");
+				found.add(this.mongoTemplate.getConverter().read(ChangeStatus.class, document));
+				ticketIds.add(ticket == null ? null : String.valueOf(ticket.getId()));
+			}
+		} finally {
+			cursor.close();
+		}
+		// Usuários de todo o lote resolvidos em um único $in
+		List<ChangeStatus> resolved = this.userReferenceResolver.resolveChanges(found);
+		Map<String, List<ChangeStatus>> changes = new HashMap<String, List<ChangeStatus>>();
+		for (int i = 0; i < resolved.size(); i++) {
+			changes.computeIfAbsent(ticketIds.get(i), id -> new ArrayList<ChangeStatus>()).add(resolved.get(i));
+		}
+		return changes;
+	}
+
+	private static List<Map<String, Object>> historyRows(List<ChangeStatus> changes) {
+		List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+		for (ChangeStatus change : changes) {
+			Map<String, Object> row = new LinkedHashMap<String, Object>();
+			row.put("status", change.getStatus());
+			row.put("date", format(change.getDateChangeStatus()));
+			row.put("user", email(change.getUserChange()));
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	// No CSV o histórico vai em uma coluna: "data status usuário" separados por " | "
+	private static String historyText(List<ChangeStatus> changes) {
+		StringBuilder text = new StringBuilder();
+		for (ChangeStatus change : changes) {
+			if (text.length() > 0) {
+				text.append(" | ");
+			}
+			text.append(format(change.getDateChangeStatus())).append(' ').append(change.getStatus());
+			String email = email(change.getUserChange());
+			if (email != null) {
+				text.append(' ').append(email);
+			}
+		}
+		return text.toString();
+	}
+
+	// Campos entre aspas quando têm vírgula, aspas ou quebra de linha (RFC 4180)
+	private static void writeCsv(Writer writer, List<String> values) throws IOException {
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				writer.write(',');
+			}
+			String value = values.get(i);
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+					|| value.indexOf('\r') >= 0) {
+				writer.write('"');
+				writer.write(value.replace("\"", "\"\""));
+				writer.write('"');
+			} else {
+				writer.write(value);
+			}
+		}
+		writer.write("\r\n");
+	}
+
+	private static String format(Date date) {
+		return date == null ? null : date.toInstant().toString();
+	}
+
+	private static String email(UserSnapshot user) {
+		return user == null ? null : user.getEmail();
+	}
+
+	// Referência que o resolver não encontrou (usuário removido) continua como proxy: não é consultada
+	private static String email(User user) {
+		return user == null || user instanceof LazyLoadingProxy ? null : user.getEmail();
+	}
+}
@@ -0,0 +1,243 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+import com.arcn.helpdesk.api.service.BlobStore;
+
+// Gera a miniatura e a imagem normalizada (JPEG reduzido, sem metadados) dos anexos, fora da requisição
+@Component
+public class TicketImageProcessor {
+
+	private static final String JPEG = "image/jpeg";
+
+	// Depois de tantas falhas o anexo deixa de ser reprocessado a cada subida
+	private static final int MAX_ATTEMPTS = 3;
+
+	// Tipos que o ImageIO do JDK sabe decodificar
+	private static final List<String> SUPPORTED_TYPES = Arrays.asList("image/png", "image/jpeg", "image/gif",
+			"image/bmp");
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private BlobStore blobStore;
+
+	@Autowired
+	@Qualifier("imageExecutor")
+	private ThreadPoolTaskExecutor imageExecutor;
+
+	@Value("${image.thumbnail-size}")
+	private int thumbnailSize;
+
+	@Value("${image.preview-size}")
+	private int previewSize;
+
+	@Value("${image.max-pixels}")
+	private long maxPixels;
+
+	@Value("${image.jpeg-quality}")
+	private float jpegQuality;
+
+	public boolean isSupported(TicketAttachment attachment) {
+		return attachment != null && attachment.getContentType() != null
+				&& SUPPORTED_TYPES.contains(attachment.getContentType().toLowerCase());
+	}
+
+	// Agenda o processamento; com a fila cheia o anexo fica pendente e é processado no próximo start
+	public void submit(String ticketId, TicketAttachment attachment) {
+		if (ticketId == null || !isSupported(attachment)) {
+			return;
+		}
+		try {
+			this.imageExecutor.execute(() -> process(ticketId, attachment));
+		} catch (TaskRejectedException e) {
+			logger.warn("HelpDesk-API | image queue full, ticket " + ticketId + " left for the next pending pass");
+		}
+	}
+
+	// Processa, na thread que chamou, os anexos de imagem que ainda não têm miniatura nem esgotaram as tentativas
+	// (usa o índice esparso por attachment.contentType: só os tickets com anexo são lidos)
+	public long processPending() {
+		Query pending = query(where("attachment.contentType").in(SUPPORTED_TYPES)
+				.and("attachment.thumbnail").exists(false)
+				.and("attachment.thumbnailAttempts").not().gte(MAX_ATTEMPTS));
+		pending.fields().include("id").include("attachment");
+		long processed = 0;
+		try (CloseableIterator<Ticket> tickets = this.mongoTemplate.stream(pending, Ticket.class)) {
+			while (tickets.hasNext()) {
+				Ticket ticket = tickets.next();
+				if (process(ticket.getId(), ticket.getAttachment())) {
+					processed++;
+				}
+			}
+		}
+		return processed;
+	}
+
+	boolean process(String ticketId, TicketAttachment source) {
+		TicketAttachment thumbnail = null;
+		TicketAttachment preview = null;
+		try {
+			BufferedImage image = read(source);
+			if (image == null) {
+				logger.warn("HelpDesk-API | attachment of ticket " + ticketId + " is not a readable image");
+				failed(ticketId, source);
+				return false;
+			}
+			String name = baseName(source.getFilename());
+			thumbnail = store(scale(image, this.thumbnailSize), name + "-thumbnail.jpg");
+			preview = store(scale(image, this.previewSize), name + "-preview.jpg");
+			// Condicionado ao mesmo blob de origem ainda sem miniatura: se o anexo foi trocado
+			// (ou já processado por outra execução) nesse meio tempo, as derivadas são descartadas
+			boolean updated = this.mongoTemplate.updateFirst(
+					query(where("id").is(ticketId).and("attachment.blobId").is(source.getBlobId())
+							.and("attachment.thumbnail").exists(false)),
+					new Update().set("attachment.thumbnail", thumbnail).set("attachment.preview", preview),
+					Ticket.class).getN() > 0;
+			if (!updated) {
+				delete(thumbnail);
+				delete(preview);
+			}
+			return updated;
+		} catch (IOException | RuntimeException e) {
+			delete(thumbnail);
+			delete(preview);
+			logger.error("HelpDesk-API | could not process image of ticket " + ticketId + ": " + e.getMessage());
+			failed(ticketId, source);
+			return false;
+		}
+	}
+
+	// Conta a falha no mesmo anexo de origem (um anexo novo começa sem tentativas)
+	private void failed(String ticketId, TicketAttachment source) {
+		try {
+			this.mongoTemplate.updateFirst(query(where("id").is(ticketId).and("attachment.blobId").is(source.getBlobId())),
+					new Update().inc("attachment.thumbnailAttempts", 1), Ticket.class);
+		} catch (RuntimeException e) {
+			logger.warn("HelpDesk-API | could not record image failure of ticket " + ticketId + ": " + e.getMessage());
+		}
+	}
+
+	// Lê o tamanho pelo cabeçalho antes de decodificar, recusando imagens grandes demais para a memória
+	private BufferedImage read(TicketAttachment source) throws IOException {
+		try (InputStream content = this.blobStore.open(source.getBlobId(), 0);
+				ImageInputStream input = ImageIO.createImageInputStream(content)) {
+			if (input == null) {
+				return null;
+			}
+			Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+			if (!readers.hasNext()) {
+				return null;
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(input, true, true);
+				long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+				if (pixels > this.maxPixels) {
+					throw new IOException("Imagem muito grande: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+				}
+				return reader.read(0);
+			} finally {
+				reader.dispose();
+			}
+		}
+	}
+
+	// Reduz para caber em size x size (nunca amplia), em passos de metade para manter a qualidade
+	static BufferedImage scale(BufferedImage image, int size) {
+		int width = image.getWidth();
+		int height = image.getHeight();
+		double ratio = Math.min(1d, (double) size / Math.max(width, height));
+		int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+		int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+		BufferedImage current = image;
+		do {
+			width = Math.max(targetWidth, width / 2);
+			height = Math.max(targetHeight, height / 2);
+			current = draw(current, width, height);
+		} while (width > targetWidth || height > targetHeight);
+		return current;
+	}
+
+	// Desenha em RGB sobre fundo branco (JPEG não tem transparência)
+	private static BufferedImage draw(BufferedImage source, int width, int height) {
+		BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D graphics = target.createGraphics();
+		try {
+			graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+		} finally {
+			graphics.dispose();
+		}
+		return target;
+	}
+
+	private TicketAttachment store(BufferedImage image, String filename) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ImageWriter writer = ImageIO.getImageWritersByMIMEType(JPEG).next();
+		try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(this.jpegQuality);
+			writer.setOutput(output);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+		return this.blobStore.store(new ByteArrayInputStream(bytes.toByteArray()), filename, JPEG);
+	}
+
+	private void delete(TicketAttachment attachment) {
+		if (attachment != null) {
+			this.blobStore.delete(attachment.getBlobId());
+		}
+	}
+
+	private static String baseName(String filename) {
+		if (filename == null || filename.isEmpty()) {
+			return "image";
+		}
+		int dot = filename.lastIndexOf('.');
+		return dot > 0 ? filename.substring(0, dot) : filename;
+	}
+}
@@ -0,0 +1,292 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.ImportReport;
+import com.arcn.helpdesk.api.repository.UserRepository;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.entity.UserSnapshot;
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.arcn.helpdesk.api.service.SequenceService;
+import com.arcn.helpdesk.api.service.TicketCounterService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BulkWriteError;
+
+// Importação em massa de tickets (NDJSON ou CSV com cabeçalho), lida linha a linha em lotes de tamanho fixo:
+// usuários resolvidos por e-mail com um $in por lote (e cache local), números reservados em bloco
+// e inserts em bulk não ordenado; a memória usada não depende do tamanho do arquivo
+@Component
+public class TicketImporter {
+
+	private static final TypeReference<Map<String, Object>> ROW_TYPE = new TypeReference<Map<String, Object>>() {
+	};
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private SequenceService sequenceService;
+
+	@Autowired
+	private TicketCounterService ticketCounterService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private TicketAttachments ticketAttachments;
+
+	@Value("${ticket.import.batch-size}")
+	private int batchSize;
+
+	@Value("${ticket.import.max-errors}")
+	private int maxErrors;
+
+	@Value("${ticket.import.user-cache-size}")
+	private int userCacheSize;
+
+	public ImportReport importTickets(BufferedReader reader, boolean csv) throws IOException {
+		ImportReport report = new ImportReport(maxErrors);
+		Map<String, Optional<User>> users = userCache();
+		List<Row> batch = new ArrayList<Row>(batchSize);
+		List<String> header = null;
+		long line = 0;
+		String text;
+		while ((text = reader.readLine()) != null) {
+			line++;
+			if (text.trim().isEmpty()) {
+				continue;
+			}
+			if (csv && header == null) {
+				header = CsvLine.parse(text);
+				continue;
+			}
+			report.addRow();
+			try {
+				batch.add(new Row(line, csv ? CsvLine.toMap(header, text) : json(text)));
+			} catch (IllegalArgumentException | IOException e) {
+				report.addError(line, "Linha inválida: " + e.getMessage());
+			}
+			if (batch.size() >= batchSize) {
+				flush(batch, users, report);
+				batch.clear();
+			}
+		}
+		flush(batch, users, report);
+		return report;
+	}
+
+	private Map<String, String> json(String text) throws IOException {
+		Map<String, Object> values = this.objectMapper.readValue(text, ROW_TYPE);
+		Map<String, String> row = new LinkedHashMap<String, String>();
+		values.forEach((key, value) -> {
+			if (value != null) {
+				row.put(key, String.valueOf(value));
+			}
+		});
+		return row;
+	}
+
+	private void flush(List<Row> batch, Map<String, Optional<User>> users, ImportReport report) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		resolveUsers(batch, users);
+		List<Ticket> tickets = new ArrayList<Ticket>(batch.size());
+		List<Long> lines = new ArrayList<Long>(batch.size());
+		for (Row row : batch) {
+			try {
+				tickets.add(toTicket(row.values, users));
+				lines.add(row.line);
+			} catch (IllegalArgumentException e) {
+				report.addError(row.line, e.getMessage());
+			}
+		}
+		if (tickets.isEmpty()) {
+			return;
+		}
+		// Um único findAndModify reserva os números do lote inteiro
+		long first = this.sequenceService.reserve(Ticket.NUMBER_SEQUENCE, tickets.size());
+		for (int i = 0; i < tickets.size(); i++) {
+			tickets.get(i).setNumber((int) (first + i));
+		}
+		offloadImages(tickets, lines, report);
+		if (tickets.isEmpty()) {
+			return;
+		}
+		Set<Integer> failed = new HashSet<Integer>();
+		try {
+			this.mongoTemplate.bulkOps(BulkMode.UNORDERED, Ticket.class).insert(tickets).execute();
+		} catch (BulkOperationException e) {
+			for (BulkWriteError error : e.getErrors()) {
+				failed.add(error.getIndex());
+				report.addError(lines.get(error.getIndex()), error.getMessage());
+			}
+		}
+		Map<StatusEnum, Long> amounts = new EnumMap<StatusEnum, Long>(StatusEnum.class);
+		for (int i = 0; i < tickets.size(); i++) {
+			if (failed.contains(i)) {
+				this.ticketAttachments.delete(tickets.get(i).getAttachment());
+			} else {
+				amounts.merge(tickets.get(i).getStatus(), 1L, Long::sum);
+				this.ticketAttachments.process(tickets.get(i));
+			}
+		}
+		report.addImported(tickets.size() - failed.size());
+		this.ticketCounterService.add(amounts);
+	}
+
+	// Coluna image (base64) vai para o BlobStore como nas demais gravações; id definido aqui para agendar a miniatura
+	private void offloadImages(List<Ticket> tickets, List<Long> lines, ImportReport report) {
+		for (int i = tickets.size() - 1; i >= 0; i--) {
+			Ticket ticket = tickets.get(i);
+			if (ticket.getImage() == null) {
+				continue;
+			}
+			try {
+				ticket.setId(new ObjectId().toHexString());
+				this.ticketAttachments.offloadInlineImage(ticket);
+			} catch (RuntimeException e) {
+				report.addError(lines.get(i), "Imagem inválida: " + e.getMessage());
+				tickets.remove(i);
+				lines.remove(i);
+			}
+		}
+	}
+
+	// Busca com um $in somente os e-mails do lote que ainda não estão no cache local
+	private void resolveUsers(List<Row> batch, Map<String, Optional<User>> users) {
+		Set<String> missing = new HashSet<String>();
+		for (Row row : batch) {
+			for (String field : new String[] { "user", "assignedUser" }) {
+				String email = row.values.get(field);
+				if (email != null && !users.containsKey(email)) {
+					missing.add(email);
+				}
+			}
+		}
+		if (missing.isEmpty()) {
+			return;
+		}
+		for (User user : this.userRepository.findByEmailIn(missing)) {
+			users.put(user.getEmail(), Optional.of(user));
+			missing.remove(user.getEmail());
+		}
+		missing.forEach(email -> users.put(email, Optional.empty()));
+	}
+
+	private Ticket toTicket(Map<String, String> values, Map<String, Optional<User>> users) {
+		String title = values.get("title");
+		if (title == null || title.trim().isEmpty()) {
+			throw new IllegalArgumentException("Ticket sem título");
+		}
+		Ticket ticket = new Ticket();
+		ticket.setTitle(title);
+		ticket.setDescription(values.get("description"));
+		ticket.setImage(values.get("image"));
+		ticket.setPriority(values.containsKey("priority") ? enumValue(PriorityEnum.class, values.get("priority"), "Prioridade") : null);
+		ticket.setStatus(values.containsKey("status") ? enumValue(StatusEnum.class, values.get("status"), "Status") : StatusEnum.New);
+		ticket.setDate(values.containsKey("date") ? date(values.get("date")) : new Date());
+		User user = user(values.get("user"), users);
+		if (user == null) {
+			throw new IllegalArgumentException("Ticket sem usuário");
+		}
+		ticket.setUser(user);
+		ticket.setUserSnapshot(UserSnapshot.of(user));
+		if (values.containsKey("assignedUser")) {
+			User assigned = user(values.get("assignedUser"), users);
+			ticket.setAssignedUser(assigned);
+			ticket.setAssignedUserSnapshot(UserSnapshot.of(assigned));
+		}
+		ticket.setVersion(0L);
+		return ticket;
+	}
+
+	private static User user(String email, Map<String, Optional<User>> users) {
+		if (email == null) {
+			return null;
+		}
+		Optional<User> user = users.get(email);
+		if (user == null || !user.isPresent()) {
+			throw new IllegalArgumentException("Usuário não encontrado: " + email);
+		}
+		return user.get();
+	}
+
+	private static <E extends Enum<E>> E enumValue(Class<E> type, String value, String label) {
+		try {
+			return Enum.valueOf(type, value.trim());
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(label + " inválido: " + value);
+		}
+	}
+
+	// Aceita data ISO (2018-03-10), data e hora ISO em UTC (2018-03-10T14:00:00Z) ou milissegundos
+	private static Date date(String value) {
+		try {
+			if (value.matches("\\d+")) {
+				return new Date(Long.parseLong(value));
+			}
+			if (value.length() == 10) {
+				return Date.from(LocalDate.parse(value).atStartOfDay(ZoneId.systemDefault()).toInstant());
+			}
+			return Date.from(Instant.parse(value));
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException("Data inválida: " + value);
+		}
+	}
+
+	// Cache local de usuários da importação (LRU limitado; Optional.empty = e-mail inexistente)
+	// A capacidade cobre ao menos os usuários de um lote, que precisam estar no cache durante o flush
+	private Map<String, Optional<User>> userCache() {
+		int capacity = Math.max(userCacheSize, 2 * batchSize);
+		return new LinkedHashMap<String, Optional<User>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Optional<User>> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	private static final class Row {
+
+		private final long line;
+		private final Map<String, String> values;
+
+		private Row(long line, Map<String, String> values) {
+			this.line = line;
+			this.values = values;
+		}
+	}
+}
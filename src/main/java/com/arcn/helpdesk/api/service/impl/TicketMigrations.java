@@ -0,0 +1,146 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.security.entity.ArchivedTicket;
+import com.arcn.helpdesk.api.security.entity.Migration;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.service.SequenceService;
+import com.mongodb.AggregationOptions;
+import com.mongodb.BasicDBObject;
+import com.mongodb.Cursor;
+import com.mongodb.DBObject;
+
+// Migrações de dados dos tickets executadas uma única vez (marcadas na coleção migration)
+@Component
+public class TicketMigrations {
+
+	private static final String VERSIONS = "ticket-versions";
+
+	private static final String DUPLICATE_NUMBERS = "ticket-duplicate-numbers";
+
+	private static final String ARCHIVE_SUMMARY_FIELDS = "archived-ticket-summary-fields";
+
+	private final Log logger = LogFactory.getLog(this.getClass());
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private SequenceService sequenceService;
+
+	// version não tem índice: a varredura da coleção inteira acontece só na primeira subida
+	public void initializeVersions() {
+		runOnce(VERSIONS, () -> {
+			int updated = this.mongoTemplate.updateMulti(query(where("version").exists(false)),
+					new Update().set("version", 0L), Ticket.class).getN();
+			logger.info("HelpDesk-API | initialized version of " + updated + " tickets");
+		});
+	}
+
+	// Tickets antigos tinham número aleatório (Random(9999)), com repetições que impedem o índice único:
+	// o mais antigo de cada número o mantém e os demais recebem números novos da sequência.
+	// Deve rodar depois de a sequência ser inicializada pelo maior número e antes da criação dos índices.
+	public void renumberDuplicates() {
+		runOnce(DUPLICATE_NUMBERS, () -> {
+			List<DBObject> pipeline = Arrays.<DBObject>asList(
+					new BasicDBObject("$match", new BasicDBObject("number", new BasicDBObject("$ne", null))),
+					new BasicDBObject("$group", new BasicDBObject("_id", "$number")
+							.append("ids", new BasicDBObject("$push", "$_id"))
+							.append("total", new BasicDBObject("$sum", 1))),
+					new BasicDBObject("$match", new BasicDBObject("total", new BasicDBObject("$gt", 1))));
+			long renumbered = 0;
+			Cursor duplicates = this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Ticket.class))
+					.aggregate(pipeline, AggregationOptions.builder().allowDiskUse(true)
+							.outputMode(AggregationOptions.OutputMode.CURSOR).build());
+			try {
+				while (duplicates.hasNext()) {
+					renumbered += renumber(duplicates.next());
+				}
+			} finally {
+				duplicates.close();
+			}
+			logger.info("HelpDesk-API | renumbered " + renumbered + " tickets with duplicate numbers");
+		});
+	}
+
+	// Mantém o número no menor ObjectId (o ticket criado primeiro); condicionado ao número lido
+	private long renumber(DBObject duplicate) {
+		Object number = duplicate.get("_id");
+		List<?> ids = (List<?>) duplicate.get("ids");
+		Object oldest = null;
+		for (Object id : ids) {
+			if (oldest == null || compare(id, oldest) < 0) {
+				oldest = id;
+			}
+		}
+		long renumbered = 0;
+		for (Object id : ids) {
+			if (id.equals(oldest)) {
+				continue;
+			}
+			int next = (int) this.sequenceService.next(Ticket.NUMBER_SEQUENCE);
+			renumbered += this.mongoTemplate.updateFirst(query(where("id").is(id).and("number").is(number)),
+					new Update().set("number", next).inc("version", 1), Ticket.class).getN();
+		}
+		return renumbered;
+	}
+
+	private static int compare(Object left, Object right) {
+		if (left instanceof ObjectId && right instanceof ObjectId) {
+			return ((ObjectId) left).compareTo((ObjectId) right);
+		}
+		return String.valueOf(left).compareTo(String.valueOf(right));
+	}
+
+	// Status, prioridade e usuários dos tickets arquivados antes de esses campos existirem, lidos do conteúdo comprimido
+	public void fillArchivedSummaryFields() {
+		runOnce(ARCHIVE_SUMMARY_FIELDS, () -> {
+			long filled = 0;
+			try (CloseableIterator<ArchivedTicket> archives = this.mongoTemplate
+					.stream(query(where("status").exists(false)), ArchivedTicket.class)) {
+				while (archives.hasNext()) {
+					ArchivedTicket archive = archives.next();
+					TicketArchiver.summaryFields((DBObject) TicketArchiver.decompress(archive.getData()).get("ticket"), archive);
+					this.mongoTemplate.updateFirst(query(where("id").is(archive.getId())),
+							new Update().set("status", archive.getStatus()).set("priority", archive.getPriority())
+									.set("userId", archive.getUserId()).set("assignedUserId", archive.getAssignedUserId()),
+							ArchivedTicket.class);
+					filled++;
+				}
+			}
+			logger.info("HelpDesk-API | filled summary fields of " + filled + " archived tickets");
+		});
+	}
+
+	// A marca só é gravada depois da migração terminar: uma queda no meio faz a migração rodar de novo
+	private void runOnce(String id, Runnable migration) {
+		if (this.mongoTemplate.exists(query(where("id").is(id)), Migration.class)) {
+			return;
+		}
+		migration.run();
+		Migration applied = new Migration();
+		applied.setId(id);
+		applied.setAppliedAt(new Date());
+		try {
+			this.mongoTemplate.insert(applied);
+		} catch (DuplicateKeyException e) {
+			// Outro nó terminou a mesma migração
+		}
+	}
+}
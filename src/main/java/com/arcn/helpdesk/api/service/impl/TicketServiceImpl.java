@@ -1,88 +1,412 @@
 package com.arcn.helpdesk.api.service.impl;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
-import com.arcn.helpdesk.api.repository.ChangeStatusRepository;
+import com.arcn.helpdesk.api.dto.CursorPage;
+import com.arcn.helpdesk.api.dto.ImportReport;
+import com.arcn.helpdesk.api.dto.SliceResult;
+import com.arcn.helpdesk.api.dto.StatusChangeResult;
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.dto.TicketSummary;
+import com.arcn.helpdesk.api.repository.KeysetCursor;
+import com.arcn.helpdesk.api.repository.TicketCriteriaBuilder;
 import com.arcn.helpdesk.api.repository.TicketRepository;
 import com.arcn.helpdesk.api.security.entity.ChangeStatus;
 import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.TicketAttachment;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.entity.UserSnapshot;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.arcn.helpdesk.api.service.BlobResource;
+import com.arcn.helpdesk.api.service.SequenceService;
+import com.arcn.helpdesk.api.service.TicketCounterService;
 import com.arcn.helpdesk.api.service.TicketService;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
 
 // Implementação do método para registro de tickets no banco: 
 @Component
 public class TicketServiceImpl implements TicketService {
 	
+	// Campos que o PATCH pode alterar (status, usuários e número têm fluxo próprio)
+	// "image" (base64) também é aceito no PATCH, mas vai para o BlobStore (ver patch)
+	private static final Set<String> PATCHABLE = new HashSet<String>(Arrays.asList("title", "priority", "description"));
+
+	private static final Set<String> REQUIRED = Collections.singleton("title");
+
         // Declaracao do Ticket 
 	@Autowired
 	private TicketRepository ticketRepository;
 	
-        // Declaração do objeto mudança de status:
+        // Gravação assíncrona (em lote) do histórico de status:
+	@Autowired
+	private ChangeStatusWriter changeStatusWriter;
+
+        // Contadores de status usados no resumo dos chamados
+	@Autowired
+	private TicketCounterService ticketCounterService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+        // Cache dos totais usados na listagem em slice
+	@Autowired
+	private TicketCountCache ticketCountCache;
+
+        // Resolução em lote dos usuários referenciados
+	@Autowired
+	private UserReferenceResolver userReferenceResolver;
+
+        // Montagem do detalhe do ticket
+	@Autowired
+	private TicketDetailAssembler ticketDetailAssembler;
+
+        // Sequência dos números de ticket
+	@Autowired
+	private SequenceService sequenceService;
+
+        // Anexos dos tickets no BlobStore
+	@Autowired
+	private TicketAttachments ticketAttachments;
+
+        // Importação em massa de tickets
+	@Autowired
+	private TicketImporter ticketImporter;
+
+        // Arquivo dos tickets fechados
+	@Autowired
+	private TicketArchiver ticketArchiver;
+
+        // Exportação em streaming
 	@Autowired
-	private ChangeStatusRepository changeStatusRepository;
+	private TicketExporter ticketExporter;
+
+        // Mudanças de status atômicas
+	@Autowired
+	private TicketStatusTransition ticketStatusTransition;
+
+        // Migrações de dados executadas uma única vez
+	@Autowired
+	private TicketMigrations ticketMigrations;
+
+	// Tickets gravados antes do @Version recebem a versão 0 (sem ela o save tentaria um insert)
+	@PostConstruct
+	public void initializeVersions() {
+		this.ticketMigrations.initializeVersions();
+	}
+
+	// A sequência continua a partir do maior número já gravado (tickets antigos usavam números aleatórios);
+	// os números repetidos desses tickets são trocados antes da criação do índice único (na subida completa)
+	@PostConstruct
+	public void initializeNumberSequence() {
+		Query query = new Query().with(new Sort(Direction.DESC, "number")).limit(1);
+		query.fields().include("number");
+		Ticket last = this.mongoTemplate.findOne(query, Ticket.class);
+		if (last != null && last.getNumber() != null) {
+			this.sequenceService.initialize(Ticket.NUMBER_SEQUENCE, last.getNumber());
+		}
+		this.ticketMigrations.renumberDuplicates();
+	}
+
+	public Integer nextNumber() {
+		return (int) this.sequenceService.next(Ticket.NUMBER_SEQUENCE);
+	}
 
 	public Ticket createOrUpdate(Ticket ticket) {
-		return this.ticketRepository.save(ticket);
+		StatusEnum previous = ticket.getId() == null ? null : currentStatus(ticket.getId());
+		refreshSnapshots(ticket);
+		// Imagem nova em base64 substitui o anexo atual; o conteúdo vai para o BlobStore
+		boolean inlineImage = ticket.getImage() != null && !ticket.getImage().isEmpty();
+		TicketAttachment replaced = inlineImage ? ticket.getAttachment() : null;
+		this.ticketAttachments.offloadInlineImage(ticket);
+		Ticket ticketPersisted = this.ticketRepository.save(ticket);
+		this.ticketAttachments.delete(replaced);
+		if (inlineImage) {
+			this.ticketAttachments.process(ticketPersisted);
+		}
+		this.ticketCounterService.move(previous, ticketPersisted.getStatus());
+		return ticketPersisted;
 	}
 
+	public Ticket patch(String id, Map<String, Object> fields, Long expectedVersion) {
+		Map<String, Object> values = new LinkedHashMap<String, Object>(fields);
+		boolean patchImage = values.containsKey("image");
+		Object image = values.remove("image");
+		Query query = FieldPatch.project(query(where("id").is(id)), values, PATCHABLE, "version");
+		if (patchImage) {
+			query.fields().include("attachment").include("number");
+		}
+		Ticket current = this.mongoTemplate.findOne(query, Ticket.class);
+		if (current == null) {
+			throw new IllegalArgumentException("Ticket não encontrado: " + id);
+		}
+		if (expectedVersion != null && !expectedVersion.equals(current.getVersion())) {
+			throw new OptimisticLockingFailureException("Ticket alterado por outro usuário");
+		}
+		Update update = FieldPatch.diff(current, Ticket.class, values, PATCHABLE, REQUIRED);
+		// Imagem em base64 vai para o BlobStore: o ticket guarda somente a referência do anexo
+		TicketAttachment attachment = null;
+		if (patchImage) {
+			String inline = image == null ? "" : image.toString();
+			attachment = inline.isEmpty() ? null : this.ticketAttachments.storeInline(inline, "image-" + current.getNumber());
+			if (attachment != null) {
+				update.set("attachment", attachment);
+			} else if (current.getAttachment() != null) {
+				update.unset("attachment");
+			}
+			update.unset("image");
+		}
+		if (FieldPatch.isEmpty(update)) {
+			return findById(id);
+		}
+		// Condicionado à versão lida no diff: uma alteração concorrente faz o PATCH falhar em vez de sobrescrever
+		Ticket patched = this.mongoTemplate.findAndModify(
+				query(where("id").is(id).and("version").is(current.getVersion())), update.inc("version", 1),
+				FindAndModifyOptions.options().returnNew(true), Ticket.class);
+		if (patched == null) {
+			this.ticketAttachments.delete(attachment);
+			throw new OptimisticLockingFailureException("Ticket alterado por outro usuário");
+		}
+		if (patchImage) {
+			this.ticketAttachments.delete(current.getAttachment());
+			this.ticketAttachments.process(patched);
+		}
+		return patched;
+	}
+
+	public ImportReport importTickets(BufferedReader reader, boolean csv) throws IOException {
+		return this.ticketImporter.importTickets(reader, csv);
+	}
+
+	public void exportTickets(TicketFilter filter, boolean csv, boolean history, OutputStream output) throws IOException {
+		this.ticketExporter.export(filter, csv, history, output);
+	}
+
+	// Ticket fora da coleção principal é procurado no arquivo de tickets fechados
 	public Ticket findById(String id) {
-		return this.ticketRepository.findOne(id);
+		Ticket ticket = this.ticketRepository.findOne(id);
+		return ticket != null ? ticket : this.ticketArchiver.findById(id);
+	}
+
+	// Usuário carregado gera uma nova cópia; referência lazy (já gravada) mantém a cópia existente
+	private void refreshSnapshots(Ticket ticket) {
+		if (!(ticket.getUser() instanceof LazyLoadingProxy) || ticket.getUserSnapshot() == null) {
+			ticket.setUserSnapshot(UserSnapshot.of(ticket.getUser()));
+		}
+		if (!(ticket.getAssignedUser() instanceof LazyLoadingProxy) || ticket.getAssignedUserSnapshot() == null) {
+			ticket.setAssignedUserSnapshot(UserSnapshot.of(ticket.getAssignedUser()));
+		}
+	}
+
+	public void propagateUserSnapshot(User user) {
+		UserSnapshot snapshot = UserSnapshot.of(user);
+		this.mongoTemplate.updateMulti(new Query(TicketCriteriaBuilder.create().user(user.getId()).build()),
+				new Update().set("userSnapshot", snapshot), Ticket.class);
+		this.mongoTemplate.updateMulti(new Query(TicketCriteriaBuilder.create().assignedUser(user.getId()).build()),
+				new Update().set("assignedUserSnapshot", snapshot), Ticket.class);
+	}
+
+	public long backfillUserSnapshots() {
+		return backfillUserSnapshots("user", "userSnapshot") + backfillUserSnapshots("assignedUser", "assignedUserSnapshot");
+	}
+
+	// Um updateMulti por usuário referenciado, somente nos tickets ainda sem cópia
+	private long backfillUserSnapshots(String reference, String snapshotField) {
+		DBObject missing = new BasicDBObject(reference, new BasicDBObject("$exists", true))
+				.append(snapshotField, new BasicDBObject("$exists", false));
+		long updated = 0;
+		for (Object userId : this.mongoTemplate.getCollection(this.mongoTemplate.getCollectionName(Ticket.class))
+				.distinct(reference + ".$id", missing)) {
+			User user = this.mongoTemplate.findById(userId, User.class);
+			if (user != null) {
+				updated += this.mongoTemplate.updateMulti(
+						query(where(reference + ".$id").is(userId).and(snapshotField).exists(false)),
+						new Update().set(snapshotField, UserSnapshot.of(user)), Ticket.class).getN();
+			}
+		}
+		return updated;
+	}
+
+	public Ticket findDetail(String id) {
+		Ticket ticket = this.ticketDetailAssembler.assemble(id);
+		return ticket != null ? ticket : this.ticketArchiver.findById(id);
 	}
 
 	public void delete(String id) {
+		Query query = query(where("id").is(id));
+		query.fields().include("status").include("attachment");
+		Ticket current = this.mongoTemplate.findOne(query, Ticket.class);
 		this.ticketRepository.delete(id);
+		if (current == null) {
+			current = this.ticketArchiver.delete(id);
+		}
+		if (current != null) {
+			this.ticketAttachments.delete(current.getAttachment());
+			this.ticketCounterService.move(current.getStatus(), null);
+		}
+	}
+
+	public Ticket storeAttachment(String id, InputStream content, String filename, String contentType) throws IOException {
+		return this.ticketAttachments.store(id, content, filename, contentType);
+	}
+
+	public BlobResource openAttachment(String id) {
+		return this.ticketAttachments.open(id);
 	}
 
-	public Page<Ticket> listTicket(int page, int count) {
-		Pageable pages = new PageRequest(page, count);
-		return this.ticketRepository.findAll(pages);
+	public long migrateInlineImages() {
+		return this.ticketAttachments.migrateInlineImages();
+	}
+
+	public BlobResource openThumbnail(String id) {
+		return this.ticketAttachments.openDerived(id, true);
+	}
+
+	public BlobResource openPreview(String id) {
+		return this.ticketAttachments.openDerived(id, false);
+	}
+
+	public long processPendingImages() {
+		return this.ticketAttachments.processPendingImages();
+	}
+
+	// Lê apenas o status atual do ticket (sem carregar o documento inteiro)
+	private StatusEnum currentStatus(String id) {
+		Query query = query(where("id").is(id));
+		query.fields().include("status");
+		Ticket current = this.mongoTemplate.findOne(query, Ticket.class);
+		return current == null ? null : current.getStatus();
+	}
+
+	public Page<TicketSummary> listTicket(int page, int count) {
+		return findByFilter(page, count, new TicketFilter());
 	}
 	
 	public Iterable<Ticket> findAll() {
 		return this.ticketRepository.findAll();
 	}
 	
-	public Page<Ticket> findByCurrentUser(int page, int count, String userId) {
-		Pageable pages = new PageRequest(page, count);
-		return this.ticketRepository.findByUserIdOrderByDateDesc(pages,userId);
+	public Page<TicketSummary> findByCurrentUser(int page, int count, String userId) {
+		TicketFilter filter = new TicketFilter();
+		filter.setUserId(userId);
+		return findByFilter(page, count, filter);
+	}
+
+	public Ticket changeStatus(String id, StatusEnum status, User changedBy, Long expectedVersion) {
+		return this.ticketStatusTransition.apply(id, status, changedBy, expectedVersion);
+	}
+
+	public List<StatusChangeResult> changeStatus(List<String> ids, StatusEnum status, User changedBy) {
+		return this.ticketStatusTransition.applyAll(ids, status, changedBy);
 	}
 
 	public ChangeStatus createChangeStatus(ChangeStatus changeStatus) {
-		return this.changeStatusRepository.save(changeStatus);
+		return this.changeStatusWriter.append(changeStatus);
 	}
 	
 	public Iterable<ChangeStatus> listChangeStatus(String ticketId) {
-		return this.changeStatusRepository.findByTicketIdOrderByDateChangeStatusDesc(ticketId);
+		return this.userReferenceResolver.resolveChanges(this.ticketDetailAssembler.history(ticketId));
 	}
 	
-	public Page<Ticket> findByParameters(int page, int count,String title,String status,String priority) {
-		Pageable pages = new PageRequest(page, count);
-		return this.ticketRepository.
-				findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityIgnoreCaseContainingOrderByDateDesc(
-				title,status,priority,pages);
+	public Page<TicketSummary> findByParameters(int page, int count,String title,String status,String priority) {
+		return findByFilter(page, count, filter(title, status, priority));
 	}
 	
-	public Page<Ticket> findByParametersAndCurrentUser(int page, int count,String title,String status,
+	public Page<TicketSummary> findByParametersAndCurrentUser(int page, int count,String title,String status,
 			String priority,String userId) {
-		Pageable pages = new PageRequest(page, count);
-		return this.ticketRepository.
-				findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityIgnoreCaseContainingAndUserIdOrderByDateDesc(
-				title,status,priority,userId,pages);
+		TicketFilter filter = filter(title, status, priority);
+		filter.setUserId(userId);
+		return findByFilter(page, count, filter);
 	}
 	
-	public Page<Ticket> findByNumber(int page, int count,Integer number){
-		Pageable pages = new PageRequest(page, count);
-		return this.ticketRepository.findByNumber(number, pages);
+	public Page<TicketSummary> findByNumber(int page, int count,Integer number){
+		TicketFilter filter = new TicketFilter();
+		filter.setNumber(number);
+		return findByFilter(page, count, filter);
 	}
 	
-	public Page<Ticket> findByParametersAndAssignedUser(int page, int count,String title,String status,
+	public Page<TicketSummary> findByParametersAndAssignedUser(int page, int count,String title,String status,
 			String priority,String assignedUserId) {
-		Pageable pages = new PageRequest(page, count);
-		return this.ticketRepository.
-				findByTitleIgnoreCaseContainingAndStatusIgnoreCaseContainingAndPriorityIgnoreCaseContainingAndAssignedUserIdOrderByDateDesc(
-				title,status,priority,assignedUserId,pages);
+		TicketFilter filter = filter(title, status, priority);
+		filter.setAssignedUserId(assignedUserId);
+		return findByFilter(page, count, filter);
+	}
+
+	public Page<TicketSummary> findByFilter(int page, int count, TicketFilter filter) {
+		PageRequest pageable = new PageRequest(page, count);
+		Page<TicketSummary> tickets = this.ticketRepository.findPage(filter, pageable);
+		// Busca por número sem resultado: o ticket pode ter sido arquivado
+		if (tickets.getTotalElements() == 0 && filter.getNumber() != null && page == 0) {
+			TicketSummary archived = this.ticketArchiver.findSummary(filter);
+			if (archived != null) {
+				return new PageImpl<TicketSummary>(Collections.singletonList(archived), pageable, 1);
+			}
+		}
+		return tickets;
+	}
+
+	// Move os tickets fechados antigos para o arquivo
+	public long archiveClosedTickets() {
+		return this.ticketArchiver.archive();
+	}
+
+	// Converte os parâmetros textuais (status/prioridade podem ter vários valores separados por vírgula)
+	private TicketFilter filter(String title, String status, String priority) {
+		TicketFilter filter = new TicketFilter();
+		filter.setTitle(title);
+		filter.setStatuses(TicketFilter.statusesOf(status));
+		filter.setPriorities(TicketFilter.prioritiesOf(priority));
+		return filter;
+	}
+
+	public CursorPage<TicketSummary> findByCursor(int count, String cursor, TicketFilter filter) {
+		// Busca um registro a mais para saber se existe próxima página
+		List<TicketSummary> tickets = this.ticketRepository.findAfter(filter, KeysetCursor.decode(cursor), count + 1);
+		String next = null;
+		if (tickets.size() > count) {
+			tickets = new ArrayList<TicketSummary>(tickets.subList(0, count));
+			TicketSummary last = tickets.get(count - 1);
+			next = new KeysetCursor(last.getDate(), last.getId()).encode();
+		}
+		return new CursorPage<TicketSummary>(tickets, next);
+	}
+
+	public SliceResult<TicketSummary> findSlice(int page, int count, TicketFilter filter, boolean total) {
+		// A contagem (quando pedida) roda em paralelo com a busca da página
+		CompletableFuture<Long> amount = total ? this.ticketCountCache.count(filter) : null;
+		Slice<TicketSummary> tickets = this.ticketRepository.findSlice(filter, new PageRequest(page, count));
+		return new SliceResult<TicketSummary>(tickets, amount == null ? null : amount.join());
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.Pair;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.dto.StatusChangeResult;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.entity.UserSnapshot;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.arcn.helpdesk.api.service.TicketCounterService;
+
+// Mudança de status atômica: um findAndModify condicionado ao status de origem (grafo do StatusEnum)
+// e, quando informada, à versão do ticket; em concorrência somente a primeira alteração é aplicada
+@Component
+public class TicketStatusTransition {
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private ChangeStatusWriter changeStatusWriter;
+
+	@Autowired
+	private TicketCounterService ticketCounterService;
+
+	public Ticket apply(String id, StatusEnum status, User changedBy, Long expectedVersion) {
+		Criteria criteria = where("id").is(id).and("status").in(status.predecessors());
+		if (expectedVersion != null) {
+			criteria.and("version").is(expectedVersion);
+		}
+		Update update = transition(status, changedBy);
+		// Retorna o documento anterior: o status de origem alimenta os contadores
+		Ticket ticket = this.mongoTemplate.findAndModify(query(criteria), update,
+				FindAndModifyOptions.options().returnNew(false), Ticket.class);
+		if (ticket == null) {
+			throw rejection(id, status, expectedVersion);
+		}
+		// Aplica em memória o mesmo update sobre o documento anterior
+		StatusEnum from = ticket.getStatus();
+		ticket.setStatus(status);
+		ticket.setVersion(ticket.getVersion() == null ? 1L : ticket.getVersion() + 1);
+		if (status == StatusEnum.Assigned) {
+			ticket.setAssignedUser(changedBy);
+			ticket.setAssignedUserSnapshot(UserSnapshot.of(changedBy));
+		}
+		this.ticketCounterService.move(from, status);
+
+		// Histórico gravado em lote pelo ChangeStatusWriter (journal local garante o registro em caso de queda)
+		this.changeStatusWriter.append(history(ticket.getId(), status, changedBy));
+		return ticket;
+	}
+
+	// Mudança em lote: uma leitura (status e versão), um bulkWrite com um updateOne condicionado por ticket
+	// e um insertMany do histórico; tickets alterados por outra requisição no meio voltam como conflito
+	public List<StatusChangeResult> applyAll(List<String> ids, StatusEnum status, User changedBy) {
+		Query read = query(where("id").in(ids));
+		read.fields().include("status").include("version");
+		Map<String, Ticket> current = new HashMap<String, Ticket>();
+		this.mongoTemplate.find(read, Ticket.class).forEach(ticket -> current.put(ticket.getId(), ticket));
+
+		Map<String, StatusChangeResult> results = new LinkedHashMap<String, StatusChangeResult>();
+		List<Ticket> eligible = new ArrayList<Ticket>();
+		List<Pair<Query, Update>> updates = new ArrayList<Pair<Query, Update>>();
+		for (String id : ids) {
+			Ticket ticket = current.get(id);
+			if (ticket == null) {
+				results.put(id, new StatusChangeResult(id, false, "Ticket não encontrado"));
+			} else if (ticket.getStatus() == null || !ticket.getStatus().canMoveTo(status)) {
+				results.put(id, new StatusChangeResult(id, false, "Transição inválida: " + ticket.getStatus() + " -> " + status));
+			} else if (!results.containsKey(id)) {
+				results.put(id, null);
+				eligible.add(ticket);
+				updates.add(Pair.of(query(where("id").is(id).and("status").is(ticket.getStatus()).and("version")
+						.is(ticket.getVersion())), transition(status, changedBy)));
+			}
+		}
+		if (eligible.isEmpty()) {
+			return new ArrayList<StatusChangeResult>(results.values());
+		}
+
+		int matched = this.mongoTemplate.bulkOps(BulkMode.UNORDERED, Ticket.class).updateOne(updates).execute()
+				.getMatchedCount();
+		// Caso comum: todos casaram e não é preciso conferir; senão relê para saber quais foram aplicados
+		Set<String> applied = matched == eligible.size() ? null : appliedIds(eligible, status);
+
+		Map<StatusEnum, Long> amounts = new EnumMap<StatusEnum, Long>(StatusEnum.class);
+		List<ChangeStatus> changes = new ArrayList<ChangeStatus>();
+		for (Ticket ticket : eligible) {
+			if (applied != null && !applied.contains(ticket.getId())) {
+				results.put(ticket.getId(), new StatusChangeResult(ticket.getId(), false, "Ticket alterado por outro usuário"));
+				continue;
+			}
+			results.put(ticket.getId(), new StatusChangeResult(ticket.getId(), true, null));
+			amounts.merge(ticket.getStatus(), -1L, Long::sum);
+			amounts.merge(status, 1L, Long::sum);
+			changes.add(history(ticket.getId(), status, changedBy));
+		}
+		this.ticketCounterService.add(amounts);
+		if (!changes.isEmpty()) {
+			this.changeStatusWriter.appendAll(changes);
+		}
+		return new ArrayList<StatusChangeResult>(results.values());
+	}
+
+	// Tickets cujo status e versão agora correspondem à mudança deste lote
+	private Set<String> appliedIds(List<Ticket> eligible, StatusEnum status) {
+		Map<String, Long> expected = new HashMap<String, Long>();
+		eligible.forEach(ticket -> expected.put(ticket.getId(), ticket.getVersion() == null ? 1L : ticket.getVersion() + 1));
+		Query query = query(where("id").in(expected.keySet()).and("status").is(status));
+		query.fields().include("version");
+		Set<String> applied = new HashSet<String>();
+		for (Ticket ticket : this.mongoTemplate.find(query, Ticket.class)) {
+			if (expected.get(ticket.getId()).equals(ticket.getVersion())) {
+				applied.add(ticket.getId());
+			}
+		}
+		return applied;
+	}
+
+	private static Update transition(StatusEnum status, User changedBy) {
+		Update update = new Update().set("status", status).inc("version", 1);
+		if (status == StatusEnum.Assigned) {
+			update.set("assignedUser", changedBy).set("assignedUserSnapshot", UserSnapshot.of(changedBy));
+		}
+		return update;
+	}
+
+	private static ChangeStatus history(String ticketId, StatusEnum status, User changedBy) {
+		Ticket ticket = new Ticket();
+		ticket.setId(ticketId);
+		ChangeStatus changeStatus = new ChangeStatus();
+		changeStatus.setTicket(ticket);
+		changeStatus.setUserChange(changedBy);
+		changeStatus.setDateChangeStatus(new Date());
+		changeStatus.setStatus(status);
+		return changeStatus;
+	}
+
+	// Descobre por que o update não casou: ticket inexistente, transição inválida ou versão desatualizada
+	private RuntimeException rejection(String id, StatusEnum status, Long expectedVersion) {
+		Query query = query(where("id").is(id));
+		query.fields().include("status").include("version");
+		Ticket current = this.mongoTemplate.findOne(query, Ticket.class);
+		if (current == null) {
+			return new IllegalArgumentException("Ticket não encontrado: " + id);
+		}
+		if (current.getStatus() == null || !current.getStatus().canMoveTo(status)) {
+			return new IllegalArgumentException("Transição inválida: " + current.getStatus() + " -> " + status);
+		}
+		return new OptimisticLockingFailureException("Ticket alterado por outro usuário (versão "
+				+ current.getVersion() + ", esperada " + expectedVersion + ")");
+	}
+}
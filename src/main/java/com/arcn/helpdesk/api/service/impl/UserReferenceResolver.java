@@ -0,0 +1,73 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.stereotype.Component;
+
+import com.arcn.helpdesk.api.repository.UserRepository;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.User;
+
+// Resolve as referências @DBRef(lazy) para User de um histórico inteiro com uma única consulta $in,
+// antes da serialização (evita uma consulta por proxy resolvido pelo Jackson)
+@Component
+public class UserReferenceResolver {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	public List<ChangeStatus> resolveChanges(Iterable<ChangeStatus> changes) {
+		List<ChangeStatus> resolved = new ArrayList<ChangeStatus>();
+		Set<String> ids = new LinkedHashSet<String>();
+		for (ChangeStatus change : changes) {
+			collect(change.getUserChange(), ids);
+			resolved.add(change);
+		}
+		Map<String, User> users = load(ids);
+		for (ChangeStatus change : resolved) {
+			change.setUserChange(resolve(change.getUserChange(), users));
+		}
+		return resolved;
+	}
+
+	// Lê o id direto do DBRef do proxy, sem disparar a consulta do proxy
+	private static String referenceId(User user) {
+		if (user instanceof LazyLoadingProxy) {
+			return String.valueOf(((LazyLoadingProxy) user).toDBRef().getId());
+		}
+		return null;
+	}
+
+	private static void collect(User user, Set<String> ids) {
+		String id = referenceId(user);
+		if (id != null) {
+			ids.add(id);
+		}
+	}
+
+	private Map<String, User> load(Set<String> ids) {
+		Map<String, User> users = new HashMap<String, User>();
+		if (!ids.isEmpty()) {
+			for (User user : this.userRepository.findAll(ids)) {
+				users.put(user.getId(), user);
+			}
+		}
+		return users;
+	}
+
+	// Usuário removido: mantém o proxy (mesmo comportamento de antes)
+	private static User resolve(User user, Map<String, User> users) {
+		String id = referenceId(user);
+		if (id == null || !users.containsKey(id)) {
+			return user;
+		}
+		return users.get(id);
+	}
+}
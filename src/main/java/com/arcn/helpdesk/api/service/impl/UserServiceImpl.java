@@ -1,27 +1,74 @@
 package com.arcn.helpdesk.api.service.impl;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import com.arcn.helpdesk.api.dto.CacheMetrics;
+import com.arcn.helpdesk.api.dto.CursorPage;
+import com.arcn.helpdesk.api.repository.KeysetCursor;
 import com.arcn.helpdesk.api.repository.UserRepository;
 import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.service.UserCache;
 import com.arcn.helpdesk.api.service.UserService;
 
 @Component
 public class UserServiceImpl implements UserService {
 
+	// Campos que o PATCH pode alterar
+	private static final Set<String> PATCHABLE = new HashSet<String>(
+			Arrays.asList("name", "email", "sign", "gender", "phoneNumber", "born", "profile", "password"));
+
+	private static final Set<String> REQUIRED = new HashSet<String>(Arrays.asList("email", "profile", "password"));
+
 	@Autowired
 	private UserRepository userRepository;
 
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	// Cache compartilhado com o filtro JWT (JwtUserDetailsServiceImpl usa findByEmail)
+	@Autowired
+	private UserCache userCache;
+
 	public User findByEmail(String email) {
-		return this.userRepository.findByEmail(email);
+		return this.userCache.get(email, this.userRepository::findByEmail);
 	}
 
 	public User createOrUpdate(User user) {
-		return this.userRepository.save(user);
+		this.userCache.invalidateId(user.getId());
+		User userPersisted = this.userRepository.save(user);
+		this.userCache.invalidate(userPersisted);
+		return userPersisted;
+	}
+
+	public User patch(String id, Map<String, Object> fields) {
+		User current = this.mongoTemplate.findOne(FieldPatch.project(query(where("id").is(id)), fields, PATCHABLE), User.class);
+		if (current == null) {
+			throw new IllegalArgumentException("Usuário não encontrado: " + id);
+		}
+		Update update = FieldPatch.diff(current, User.class, fields, PATCHABLE, REQUIRED);
+		if (FieldPatch.isEmpty(update)) {
+			return findById(id);
+		}
+		this.userCache.invalidateId(id);
+		User patched = this.userRepository.patch(id, update);
+		this.userCache.invalidate(patched);
+		return patched;
 	}
 
 	public User findById(String id) {
@@ -30,10 +77,31 @@ public class UserServiceImpl implements UserService {
 
 	public void delete(String id) {
 		this.userRepository.delete(id);
+		this.userCache.invalidateId(id);
 	}
 
 	public Page<User> findAll(int page, int count) {
 		Pageable pages = new PageRequest(page, count);
 		return this.userRepository.findAll(pages);
 	}
+
+	public CursorPage<User> findByCursor(int count, String cursor) {
+		// Busca um registro a mais para saber se existe próxima página
+		List<User> users = this.userRepository.findAfter(KeysetCursor.decode(cursor), count + 1);
+		String next = null;
+		if (users.size() > count) {
+			users = new ArrayList<User>(users.subList(0, count));
+			next = new KeysetCursor(null, users.get(count - 1).getId()).encode();
+		}
+		return new CursorPage<User>(users, next);
+	}
+
+	public CacheMetrics cacheMetrics() {
+		return this.userCache.metrics();
+	}
+
+	public void updatePassword(String id, String encodedPassword) {
+		this.userRepository.updatePassword(id, encodedPassword);
+		this.userCache.invalidateId(id);
+	}
 }
@@ -0,0 +1,42 @@
+package com.arcn.helpdesk.api.dto;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+
+// Conversão dos parâmetros de status/prioridade da busca
+public class TicketFilterTest {
+
+	@Test
+	public void parsesCommaSeparatedStatuses() {
+		assertEquals(EnumSet.of(StatusEnum.New, StatusEnum.Assigned), TicketFilter.statusesOf("New,Assigned"));
+	}
+
+	@Test
+	public void ignoresCaseSpacesAndEmptyItems() {
+		assertEquals(EnumSet.of(StatusEnum.Closed, StatusEnum.Resolved), TicketFilter.statusesOf(" closed , ,RESOLVED,"));
+	}
+
+	@Test
+	public void emptyValueIsNotInformed() {
+		assertNull(TicketFilter.statusesOf(null));
+		assertNull(TicketFilter.statusesOf(""));
+		assertNull(TicketFilter.statusesOf(" , "));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnknownStatus() {
+		TicketFilter.statusesOf("New,Reopened");
+	}
+
+	@Test
+	public void parsesPriorities() {
+		assertEquals(EnumSet.of(PriorityEnum.High), TicketFilter.prioritiesOf("high"));
+	}
+}
@@ -0,0 +1,59 @@
+package com.arcn.helpdesk.api.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import org.junit.Test;
+
+// Token da paginação por cursor: ida e volta e recusa de tokens inválidos
+public class KeysetCursorTest {
+
+	@Test
+	public void roundTripsDateAndId() {
+		Date date = new Date(1500000000000L);
+		KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(date, "5a1b2c3d4e5f607182930a1b").encode());
+		assertEquals(date, cursor.getDate());
+		assertEquals("5a1b2c3d4e5f607182930a1b", cursor.getId());
+	}
+
+	@Test
+	public void roundTripsMissingDate() {
+		KeysetCursor cursor = KeysetCursor.decode(new KeysetCursor(null, "id").encode());
+		assertNull(cursor.getDate());
+		assertEquals("id", cursor.getId());
+	}
+
+	@Test
+	public void emptyTokenIsFirstPage() {
+		assertNull(KeysetCursor.decode(null));
+		assertNull(KeysetCursor.decode(""));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNonBase64Token() {
+		KeysetCursor.decode("não é base64!");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTokenWithoutSeparator() {
+		KeysetCursor.decode(encode("1500000000000"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsTokenWithoutId() {
+		KeysetCursor.decode(encode("1500000000000:"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsInvalidDate() {
+		KeysetCursor.decode(encode("ontem:id"));
+	}
+
+	private static String encode(String key) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+}
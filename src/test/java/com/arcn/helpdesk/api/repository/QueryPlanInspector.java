@@ -0,0 +1,62 @@
+package com.arcn.helpdesk.api.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.mongodb.DBCursor;
+import com.mongodb.DBObject;
+
+// Executa o explain de uma consulta e lista os estágios do plano vencedor (ex.: IXSCAN, COLLSCAN)
+public final class QueryPlanInspector {
+
+	public static final String COLLECTION_SCAN = "COLLSCAN";
+
+	private QueryPlanInspector() {
+	}
+
+	public static DBObject explain(MongoTemplate mongoTemplate, Query query, Class<?> type) {
+		MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(type);
+		QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+		DBCursor cursor = mongoTemplate.getCollection(mongoTemplate.getCollectionName(type))
+				.find(mapper.getMappedObject(query.getQueryObject(), entity));
+		if (query.getSortObject() != null) {
+			cursor.sort(mapper.getMappedSort(query.getSortObject(), entity));
+		}
+		if (query.getLimit() > 0) {
+			cursor.limit(query.getLimit());
+		}
+		return cursor.explain();
+	}
+
+	public static List<String> winningPlanStages(DBObject explain) {
+		List<String> stages = new ArrayList<String>();
+		DBObject planner = (DBObject) explain.get("queryPlanner");
+		if (planner != null) {
+			collectStages((DBObject) planner.get("winningPlan"), stages);
+		}
+		return stages;
+	}
+
+	public static boolean usesCollectionScan(MongoTemplate mongoTemplate, Query query, Class<?> type) {
+		return winningPlanStages(explain(mongoTemplate, query, type)).contains(COLLECTION_SCAN);
+	}
+
+	private static void collectStages(DBObject plan, List<String> stages) {
+		if (plan == null) {
+			return;
+		}
+		stages.add(String.valueOf(plan.get("stage")));
+		collectStages((DBObject) plan.get("inputStage"), stages);
+		Object inputStages = plan.get("inputStages");
+		if (inputStages instanceof List) {
+			for (Object stage : (List<?>) inputStages) {
+				collectStages((DBObject) stage, stages);
+			}
+		}
+	}
+}
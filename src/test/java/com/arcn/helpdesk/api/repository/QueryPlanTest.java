@@ -0,0 +1,140 @@
+package com.arcn.helpdesk.api.repository;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.arcn.helpdesk.api.config.MongoIndexCatalog;
+import com.arcn.helpdesk.api.dto.TicketFilter;
+import com.arcn.helpdesk.api.security.entity.ChangeStatus;
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.entity.User;
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.arcn.helpdesk.api.security.enums.StatusEnum;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBRef;
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ServerAddress;
+
+// Verifica com explain, em um mongod local, que nenhuma consulta dos repositórios faz COLLSCAN
+// (o teste é ignorado quando não há mongod em localhost:27017)
+public class QueryPlanTest {
+
+	private static final String DATABASE = "helpdesk_query_plan_test";
+
+	private MongoClient client;
+	private MongoTemplate mongoTemplate;
+	private ObjectId userId = new ObjectId();
+
+	@Before
+	public void setUp() {
+		client = new MongoClient(new ServerAddress("localhost", 27017),
+				MongoClientOptions.builder().serverSelectionTimeout(1000).build());
+		try {
+			client.getDatabase("admin").runCommand(new org.bson.Document("ping", 1));
+		} catch (RuntimeException e) {
+			client.close();
+			Assume.assumeTrue("mongod local indisponível", false);
+		}
+		mongoTemplate = new MongoTemplate(client, DATABASE);
+		mongoTemplate.getDb().dropDatabase();
+		seed();
+		assertTrue(MongoIndexCatalog.ensureIndexes(mongoTemplate).isEmpty());
+	}
+
+	@After
+	public void tearDown() {
+		if (mongoTemplate != null) {
+			mongoTemplate.getDb().dropDatabase();
+			client.close();
+		}
+	}
+
+	@Test
+	public void ticketQueriesUseIndexes() {
+		Map<String, Query> queries = new LinkedHashMap<String, Query>();
+		queries.put("all", ticketQuery(new TicketFilter()));
+		TicketFilter byUser = new TicketFilter();
+		byUser.setUserId(userId.toString());
+		queries.put("user", ticketQuery(byUser));
+		TicketFilter byAssigned = new TicketFilter();
+		byAssigned.setAssignedUserId(userId.toString());
+		queries.put("assignedUser", ticketQuery(byAssigned));
+		TicketFilter byStatus = new TicketFilter();
+		byStatus.setStatuses(EnumSet.of(StatusEnum.New, StatusEnum.Assigned));
+		queries.put("status", ticketQuery(byStatus));
+		TicketFilter byPriority = new TicketFilter();
+		byPriority.setPriorities(EnumSet.of(PriorityEnum.High));
+		queries.put("priority", ticketQuery(byPriority));
+		TicketFilter byNumber = new TicketFilter();
+		byNumber.setNumber(42);
+		queries.put("number", ticketQuery(byNumber));
+		TicketFilter byTitle = new TicketFilter();
+		byTitle.setTitle("printer");
+		queries.put("title", ticketQuery(byTitle));
+		Date date = new Date();
+		Criteria seek = new Criteria().orOperator(where("date").lt(date),
+				where("date").is(date).and("id").lt(new ObjectId().toString()));
+		queries.put("cursor", new Query(TicketCriteriaBuilder.create().and(seek).build())
+				.with(TicketRepositoryImpl.dateOrder()).limit(21));
+
+		for (Map.Entry<String, Query> query : queries.entrySet()) {
+			assertFalse("COLLSCAN em ticket/" + query.getKey(),
+					QueryPlanInspector.usesCollectionScan(mongoTemplate, query.getValue(), Ticket.class));
+		}
+	}
+
+	@Test
+	public void changeStatusHistoryUsesIndex() {
+		Query query = new Query(where("ticket.$id").is(new ObjectId()))
+				.with(new Sort(Direction.DESC, "dateChangeStatus"));
+		assertFalse(QueryPlanInspector.usesCollectionScan(mongoTemplate, query, ChangeStatus.class));
+	}
+
+	@Test
+	public void userByEmailUsesIndex() {
+		Query query = new Query(where("email").is("admin@helpdesk.com"));
+		assertFalse(QueryPlanInspector.usesCollectionScan(mongoTemplate, query, User.class));
+	}
+
+	private Query ticketQuery(TicketFilter filter) {
+		return new Query(TicketCriteriaBuilder.from(filter).build()).with(TicketRepositoryImpl.dateOrder()).limit(20);
+	}
+
+	// Alguns documentos para o planner ter o que comparar
+	private void seed() {
+		DBRef user = new DBRef("user", userId);
+		for (int i = 0; i < 50; i++) {
+			mongoTemplate.getCollection("ticket").insert(new BasicDBObject("title", "ticket " + i)
+					.append("number", i)
+					.append("date", new Date(System.currentTimeMillis() - i * 60000L))
+					.append("status", StatusEnum.values()[i % StatusEnum.values().length].name())
+					.append("priority", PriorityEnum.values()[i % PriorityEnum.values().length].name())
+					.append("user", user)
+					.append("assignedUser", user));
+			mongoTemplate.getCollection("changeStatus").insert(new BasicDBObject("ticket", new DBRef("ticket", new ObjectId()))
+					.append("dateChangeStatus", new Date()));
+		}
+		mongoTemplate.getCollection("user").insert(Arrays.asList(
+				new BasicDBObject("_id", userId).append("email", "admin@helpdesk.com"),
+				new BasicDBObject("email", "customer@helpdesk.com")));
+	}
+}
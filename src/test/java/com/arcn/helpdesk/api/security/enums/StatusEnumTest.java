@@ -0,0 +1,49 @@
+package com.arcn.helpdesk.api.security.enums;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+
+import org.junit.Test;
+
+// Grafo de transições de status usado na condição do update atômico
+public class StatusEnumTest {
+
+	@Test
+	public void allowsMovingToAnyOtherStatus() {
+		assertTrue(StatusEnum.New.canMoveTo(StatusEnum.Assigned));
+		assertTrue(StatusEnum.New.canMoveTo(StatusEnum.Resolved));
+		assertTrue(StatusEnum.Assigned.canMoveTo(StatusEnum.Closed));
+		assertTrue(StatusEnum.Closed.canMoveTo(StatusEnum.New));
+	}
+
+	@Test
+	public void rejectsRepeatingCurrentStatus() {
+		for (StatusEnum status : StatusEnum.values()) {
+			assertFalse(status.canMoveTo(status));
+		}
+	}
+
+	@Test
+	public void predecessorsMatchTransitions() {
+		for (StatusEnum target : StatusEnum.values()) {
+			for (StatusEnum source : StatusEnum.values()) {
+				assertEquals(source.canMoveTo(target), target.predecessors().contains(source));
+			}
+		}
+	}
+
+	@Test
+	public void assignedIsNotItsOwnPredecessor() {
+		// Segunda de duas atribuições concorrentes não casa a condição do findAndModify
+		assertEquals(EnumSet.complementOf(EnumSet.of(StatusEnum.Assigned)), StatusEnum.Assigned.predecessors());
+	}
+
+	@Test
+	public void unknownNameFallsBackToNew() {
+		assertEquals(StatusEnum.Closed, StatusEnum.getStatus("Closed"));
+		assertEquals(StatusEnum.New, StatusEnum.getStatus("Reopened"));
+	}
+}
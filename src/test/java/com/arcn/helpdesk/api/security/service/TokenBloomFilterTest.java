@@ -0,0 +1,77 @@
+package com.arcn.helpdesk.api.security.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.arcn.helpdesk.api.security.jwt.JwtTokenUtil;
+
+// Filtro de Bloom dos tokens revogados: sem falso negativo e taxa de falso positivo próxima da configurada
+public class TokenBloomFilterTest {
+
+	@Test
+	public void containsEveryInsertedDigest() {
+		TokenBloomFilter filter = new TokenBloomFilter(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			filter.put(JwtTokenUtil.digest("token-" + i));
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertTrue(filter.mightContain(JwtTokenUtil.digest("token-" + i)));
+		}
+	}
+
+	@Test
+	public void emptyFilterContainsNothing() {
+		TokenBloomFilter filter = new TokenBloomFilter(0, 0.01);
+		assertFalse(filter.mightContain(JwtTokenUtil.digest("token")));
+	}
+
+	@Test
+	public void falsePositiveRateStaysNearTarget() {
+		TokenBloomFilter filter = new TokenBloomFilter(1000, 0.01);
+		for (int i = 0; i < 1000; i++) {
+			filter.put(JwtTokenUtil.digest("revoked-" + i));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 10000; i++) {
+			if (filter.mightContain(JwtTokenUtil.digest("valid-" + i))) {
+				falsePositives++;
+			}
+		}
+		// 1% de 10000 = 100; folga para a variação das amostras
+		assertTrue("falsos positivos: " + falsePositives, falsePositives < 300);
+	}
+
+	@Test
+	public void undersizedFilterStillHasNoFalseNegatives() {
+		TokenBloomFilter filter = new TokenBloomFilter(1, 0.01);
+		for (int i = 0; i < 100; i++) {
+			filter.put(JwtTokenUtil.digest("token-" + i));
+		}
+		for (int i = 0; i < 100; i++) {
+			assertTrue(filter.mightContain(JwtTokenUtil.digest("token-" + i)));
+		}
+	}
+
+	@Test
+	public void concurrentPutsLoseNoBits() throws InterruptedException {
+		TokenBloomFilter filter = new TokenBloomFilter(4000, 0.01);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int offset = t * 1000;
+			threads[t] = new Thread(() -> {
+				for (int i = offset; i < offset + 1000; i++) {
+					filter.put(JwtTokenUtil.digest("token-" + i));
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < 4000; i++) {
+			assertTrue(filter.mightContain(JwtTokenUtil.digest("token-" + i)));
+		}
+	}
+}
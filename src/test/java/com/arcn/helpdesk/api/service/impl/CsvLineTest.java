@@ -0,0 +1,46 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.Test;
+
+// Leitura das linhas CSV da importação (aspas, separadores e colunas)
+public class CsvLineTest {
+
+	@Test
+	public void parsesPlainFields() {
+		assertEquals(Arrays.asList("a", "b", "c"), CsvLine.parse("a,b,c"));
+	}
+
+	@Test
+	public void keepsEmptyFields() {
+		assertEquals(Arrays.asList("", "b", ""), CsvLine.parse(",b,"));
+	}
+
+	@Test
+	public void parsesQuotedFieldsWithCommasAndEscapedQuotes() {
+		assertEquals(Arrays.asList("a, b", "diz \"oi\"", "c"), CsvLine.parse("\"a, b\",\"diz \"\"oi\"\"\",c"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnclosedQuotes() {
+		CsvLine.parse("a,\"b");
+	}
+
+	@Test
+	public void mapsValuesToHeaderSkippingEmptyFields() {
+		Map<String, String> row = CsvLine.toMap(Arrays.asList("title", " priority", "description"), "Erro,High,");
+		assertEquals("Erro", row.get("title"));
+		assertEquals("High", row.get("priority"));
+		assertFalse(row.containsKey("description"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsWrongColumnCount() {
+		CsvLine.toMap(Arrays.asList("title", "priority"), "a,b,c");
+	}
+}
@@ -0,0 +1,98 @@
+package com.arcn.helpdesk.api.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.arcn.helpdesk.api.security.entity.Ticket;
+import com.arcn.helpdesk.api.security.enums.PriorityEnum;
+import com.mongodb.DBObject;
+
+// Update parcial do PATCH: somente campos permitidos, enviados e alterados
+public class FieldPatchTest {
+
+	private static final Set<String> ALLOWED = new HashSet<String>(Arrays.asList("title", "priority", "description"));
+
+	private static final Set<String> REQUIRED = Collections.singleton("title");
+
+	@Test
+	public void setsOnlyChangedFields() {
+		Map<String, Object> fields = new LinkedHashMap<String, Object>();
+		fields.put("title", "Impressora");
+		fields.put("priority", "High");
+		Update update = FieldPatch.diff(ticket(), Ticket.class, fields, ALLOWED, REQUIRED);
+		DBObject set = (DBObject) update.getUpdateObject().get("$set");
+		assertEquals(Collections.singleton("priority"), set.keySet());
+		assertEquals(PriorityEnum.High, set.get("priority"));
+	}
+
+	@Test
+	public void unchangedFieldsProduceEmptyUpdate() {
+		Map<String, Object> fields = new LinkedHashMap<String, Object>();
+		fields.put("title", "Impressora");
+		fields.put("priority", "Normal");
+		assertTrue(FieldPatch.isEmpty(FieldPatch.diff(ticket(), Ticket.class, fields, ALLOWED, REQUIRED)));
+	}
+
+	@Test
+	public void nullUnsetsOptionalField() {
+		Update update = FieldPatch.diff(ticket(), Ticket.class, Collections.<String, Object>singletonMap("description", null),
+				ALLOWED, REQUIRED);
+		DBObject unset = (DBObject) update.getUpdateObject().get("$unset");
+		assertTrue(unset.containsField("description"));
+		assertNull(update.getUpdateObject().get("$set"));
+	}
+
+	@Test
+	public void nullOnAbsentFieldIsNoChange() {
+		Ticket ticket = ticket();
+		ticket.setDescription(null);
+		assertTrue(FieldPatch.isEmpty(FieldPatch.diff(ticket, Ticket.class,
+				Collections.<String, Object>singletonMap("description", null), ALLOWED, REQUIRED)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNullRequiredField() {
+		FieldPatch.diff(ticket(), Ticket.class, Collections.<String, Object>singletonMap("title", null), ALLOWED, REQUIRED);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsFieldOutsideWhitelist() {
+		FieldPatch.diff(ticket(), Ticket.class, Collections.<String, Object>singletonMap("status", "Closed"), ALLOWED,
+				REQUIRED);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsValueOfWrongType() {
+		FieldPatch.diff(ticket(), Ticket.class, Collections.<String, Object>singletonMap("priority", "Urgente"), ALLOWED,
+				REQUIRED);
+	}
+
+	@Test
+	public void projectsOnlySubmittedFields() {
+		DBObject projection = FieldPatch.project(new Query(),
+				Collections.<String, Object>singletonMap("title", "x"), ALLOWED, "version").getFieldsObject();
+		assertEquals(new HashSet<String>(Arrays.asList("title", "version")), projection.keySet());
+		assertFalse(projection.containsField("description"));
+	}
+
+	private static Ticket ticket() {
+		Ticket ticket = new Ticket();
+		ticket.setTitle("Impressora");
+		ticket.setPriority(PriorityEnum.Normal);
+		ticket.setDescription("Não imprime");
+		return ticket;
+	}
+}